@@ -0,0 +1,69 @@
+package tetris;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * The time the AutoPlayer takes to choose a placement, searching on one thread or several,
+ * on stacks of different heights and looking different numbers of shapes ahead. Has to stay
+ * within a gravity tick at the highest level.
+ * 
+ * The search is measured without an EvaluationCache, since making the same decision over and
+ * over would otherwise be answered entirely from the cache.
+ * 
+ * @author emma
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AutoPlayerBenchmark {
+	
+	@Param({"0", "8", "16"})
+	public int stackHeight;
+	
+	@Param({"1", "4"})
+	public int threads;
+	
+	@Param({"0", "1"})
+	public int lookahead;
+	
+	private ForkJoinPool pool;
+	private AutoPlayer player;
+	private GameEngine engine;
+	
+	@Setup
+	public void setUp(){
+		pool = new ForkJoinPool(threads);
+		player = new AutoPlayer(pool, lookahead, null);
+		engine = new GameEngine(Boards.filled(stackHeight, 42), new SplittableRandom(42));
+		engine.step();
+	}
+	
+	@TearDown
+	public void tearDown(){
+		pool.shutdown();
+	}
+	
+	@Benchmark
+	public AutoPlayer.Placement findPlacement(){
+		return player.findPlacement(engine);
+	}
+}
@@ -0,0 +1,76 @@
+package tetris;
+
+import java.util.Random;
+
+
+/**
+ * Builds the boards and shapes used by the benchmarks.
+ * 
+ * @author emma
+ */
+final class Boards {
+	
+	private static final double CELL_DENSITY = 0.7; //chance of a cell below the stack height being occupied
+	
+	private Boards(){
+	}
+	
+	/**
+	 * Returns a board whose bottom stackHeight rows are filled at random, as they would
+	 * be part way through a game. Every row is left with at least one hole so no line is full.
+	 * 
+	 * @param stackHeight the number of rows from the bottom that hold blocks
+	 * @param seed
+	 */
+	static Board filled(int stackHeight, long seed){
+		Random random = new Random(seed);
+		Board board = new Board();
+		for(int y=Board.ROWS-stackHeight; y<Board.ROWS; y++){
+			int hole = random.nextInt(Board.COLUMNS);
+			for(int x=0; x<Board.COLUMNS; x++){
+				if(x!=hole && random.nextDouble()<CELL_DENSITY){
+					board.setBlock(x, y, ValidColour.fromIndex(random.nextInt(ValidColour.values().length)));
+				}
+			}
+		}
+		return board;
+	}
+	
+	/**
+	 * Returns a filled board in which fullLines of the bottom rows, spread over the stack,
+	 * have been made full.
+	 * 
+	 * @param stackHeight
+	 * @param fullLines
+	 * @param seed
+	 */
+	static Board withFullLines(int stackHeight, int fullLines, long seed){
+		Board board = filled(stackHeight, seed);
+		for(int i=0; i<fullLines; i++){
+			int y = Board.ROWS - 1 - (i*2);
+			for(int x=0; x<Board.COLUMNS; x++){
+				board.setBlock(x, y, ValidColour.RED);
+			}
+		}
+		return board;
+	}
+	
+	/**
+	 * Creates a shape from the name of its ShapeType
+	 * @param name
+	 */
+	static ComplexShape shape(String name){
+		return new ComplexShape(ShapeType.valueOf(name));
+	}
+	
+	/**
+	 * Moves a shape down until it rests on the stack (or the bottom of the board)
+	 * @param shape
+	 * @param board
+	 */
+	static void rest(ComplexShape shape, Board board){
+		while(shape.isValidDownwardMove(board)){
+			shape.moveDown();
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package tetris;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Line clearing as done on every gravity tick by GameEngine.detectFullLine. Clearing changes
+ * the board, so each operation first restores the engine's board from the prepared one;
+ * copyBoard measures the restore alone so it can be subtracted.
+ * 
+ * @author emma
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LineClearBenchmark {
+	
+	@Param({"8", "16", "24"})
+	public int stackHeight;
+	
+	@Param({"0", "1", "4"})
+	public int fullLines;
+	
+	private Board template;
+	private Board board;
+	private GameEngine engine;
+	
+	@Setup
+	public void setUp(){
+		template = Boards.withFullLines(stackHeight, fullLines, 42);
+		board = new Board(template);
+		engine = new GameEngine(board, new SplittableRandom(42));
+	}
+	
+	@Benchmark
+	public Board copyBoard(){
+		board.copyFrom(template);
+		return board;
+	}
+	
+	@Benchmark
+	public int detectFullLine(){
+		board.copyFrom(template);
+		return engine.detectFullLine();
+	}
+}
@@ -0,0 +1,108 @@
+package tetris;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Collision and rotation checks of each shape, resting on stacks of different heights.
+ * 
+ * @author emma
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ShapeBenchmark {
+	
+	@Param({"CUBE", "LINE", "L_SHAPE", "T_SHAPE", "S_SHAPE", "Z_SHAPE", "J_SHAPE"})
+	public String shapeName;
+	
+	@Param({"0", "8", "16", "24"})
+	public int stackHeight;
+	
+	private Board board;
+	private ComplexShape shape;
+	private ComplexShape spawned; //a shape where it is created, above the stack
+	
+	@Setup
+	public void setUp(){
+		board = Boards.filled(stackHeight, 42);
+		shape = Boards.shape(shapeName);
+		Boards.rest(shape, board);
+		spawned = Boards.shape(shapeName);
+	}
+	
+	@Benchmark
+	public boolean isValidDownwardMove(){
+		return shape.isValidDownwardMove(board);
+	}
+	
+	@Benchmark
+	public boolean isValidLeftMove(){
+		return shape.isValidLeftMove(board);
+	}
+	
+	@Benchmark
+	public boolean isValidRightMove(){
+		return shape.isValidRightMove(board);
+	}
+	
+	@Benchmark
+	public boolean isValidRotation(){
+		return shape.isValidRotation(board);
+	}
+	
+	/**
+	 * How far a newly created shape can drop, from the tops of the columns
+	 */
+	@Benchmark
+	public int getDropDistance(){
+		return spawned.getDropDistance(board);
+	}
+	
+	/**
+	 * The landing row of the ghost of a newly created shape, as found for every snapshot
+	 * while the shape falls - cached after the first call
+	 */
+	@Benchmark
+	public int getGhostStdY(){
+		return spawned.getGhostStdY(board);
+	}
+	
+	/**
+	 * How far a newly created shape can drop, testing one row at a time as hard drops
+	 * used to - the baseline for getDropDistance
+	 */
+	@Benchmark
+	public int steppedDropDistance(){
+		int distance = 0;
+		while(spawned.isValidMove(board, 0, distance+1)){
+			distance++;
+		}
+		return distance;
+	}
+	
+	/**
+	 * Rotating only changes the orientation, so the shape cycles through its
+	 * orientations without drifting.
+	 */
+	@Benchmark
+	public ComplexShape rotateBlocks(){
+		shape.rotateBlocks();
+		return shape;
+	}
+}
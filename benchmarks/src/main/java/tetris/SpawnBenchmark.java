@@ -0,0 +1,107 @@
+package tetris;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * GameEngine.checkActiveBlockValid, both for a shape that is still falling (the check done
+ * on most ticks) and for a shape that has landed and is settled on the board before the next
+ * shape is created.
+ * 
+ * Landing changes the engine, so each landed operation first restores the engine's board from
+ * the next of a set of prepared boards and drops a shape onto it; land measures the restore
+ * alone so it can be subtracted. Restoring in the benchmark itself, rather than in a setup per
+ * invocation, keeps JMH's per invocation overhead out of an operation this short.
+ * 
+ * @author emma
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SpawnBenchmark {
+	
+	@Param({"0", "8", "16", "24"})
+	public int stackHeight;
+	
+	private GameEngine fallingEngine;
+	
+	@Setup
+	public void setUp(){
+		fallingEngine = new GameEngine(Boards.filled(stackHeight, 42), new SplittableRandom(42));
+	}
+	
+	/**
+	 * Kept in its own state so that the landed boards do not disturb the measurement of the
+	 * falling case.
+	 */
+	@State(Scope.Thread)
+	public static class Landed {
+		
+		private static final int BOARDS = 64; //prepared boards cycled through, a power of 2
+		
+		private final SplittableRandom random = new SplittableRandom(42);
+		private final Board[] templates = new Board[BOARDS];
+		private Board board;
+		private GameEngine engine;
+		private int next;
+		
+		/**
+		 * Prepares boards of the benchmark's stack height, and a fresh engine, for every iteration
+		 */
+		@Setup(Level.Iteration)
+		public void prepare(SpawnBenchmark benchmark){
+			for(int i=0; i<BOARDS; i++){
+				templates[i] = Boards.filled(benchmark.stackHeight, random.nextLong());
+			}
+			board = new Board();
+			engine = new GameEngine(board, random.split());
+			next = 0;
+		}
+		
+		/**
+		 * Restores the engine's board from the next prepared board and lands the active shape
+		 * on it, dropped from where it spawned
+		 */
+		void land(){
+			board.copyFrom(templates[next]);
+			next = (next+1) & (BOARDS-1);
+			ComplexShape shape = engine.getActiveBlock();
+			shape.setPosition(0, shape.getType().getSpawnX(), shape.getType().getSpawnY());
+			engine.hardDrop();
+		}
+	}
+	
+	@Benchmark
+	public boolean checkActiveBlockValidFalling(){
+		return fallingEngine.checkActiveBlockValid();
+	}
+	
+	@Benchmark
+	public GameEngine land(Landed landed){
+		landed.land();
+		return landed.engine;
+	}
+	
+	@Benchmark
+	public boolean checkActiveBlockValidLanded(Landed landed){
+		landed.land();
+		return landed.engine.checkActiveBlockValid();
+	}
+}
@@ -0,0 +1,176 @@
+package tetris;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Toolkit;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Actively renders the snapshots published by a GameLoop, as an alternative to the passively
+ * painted Canvas. A thread of its own renders into a page flipped BufferStrategy at no more than
+ * a fixed number of frames per second, independently of the rate the loop runs the game at, so
+ * the time from a move being made to it appearing on screen is bounded by a frame, and repaints
+ * requested by Swing never pile up.
+ *
+ * Frames are paced against when each was due rather than when the previous one finished, and a
+ * frame is only rendered when there is a new snapshot or the contents of the buffers were lost,
+ * so an idle game costs next to nothing. Toolkit.sync() is called after every frame is shown so
+ * that it reaches the screen straight away on systems that buffer drawing.
+ *
+ * @author emma
+ * @see Canvas
+ * @see BoardRenderer
+ * @see MainWindow
+ */
+public class ActiveCanvas extends java.awt.Canvas implements Runnable {
+
+	public static final int DEFAULT_FPS = 60; //frame rate cap used when none is given
+	private static final int BUFFERS = 2; //number of buffers flipped between
+
+	private final GameLoop iLoop; //runs the game that is rendered and controlled by the canvas
+	private final long iFrameNanos; //the shortest time between frames
+	private final BoardRenderer iRenderer = new BoardRenderer(); //only used on the render thread
+	private volatile Thread iRenderThread; //renders the frames, null when not rendering
+	private volatile long iFrameCount = 0; //the number of frames rendered
+
+	/**
+	 * Defines mouse listeners and key listeners and the size of the canvas
+	 *
+	 * @param loop the loop running the game to render and control
+	 * @param fps the most frames to render per second
+	 */
+	public ActiveCanvas(GameLoop loop, int fps){
+		if(fps<=0){
+			throw new IllegalArgumentException("The frame rate must be positive, was " + fps);
+		}
+		iLoop = loop;
+		iFrameNanos = TimeUnit.SECONDS.toNanos(1)/fps;
+		addMouseListener(new MouseAdapter() {
+			public void mousePressed(MouseEvent e){
+				requestFocusInWindow();
+			}
+		});
+		addKeyListener(new KeyControls(loop));
+		setPreferredSize(new Dimension(Canvas.WIDTH, Canvas.HEIGHT));
+		setFocusable(true);
+		setBackground(Color.WHITE);
+		//every frame is rendered by the render thread
+		setIgnoreRepaint(true);
+	}
+
+	/* (non-Javadoc)
+	 * Starts rendering once the canvas can be drawn on
+	 * @see java.awt.Canvas#addNotify()
+	 */
+	public void addNotify(){
+		super.addNotify();
+		createBufferStrategy(BUFFERS);
+		Thread thread = new Thread(this, "Renderer");
+		thread.setDaemon(true);
+		iRenderThread = thread;
+		thread.start();
+	}
+
+	/* (non-Javadoc)
+	 * Stops rendering before the buffers are released
+	 * @see java.awt.Component#removeNotify()
+	 */
+	public void removeNotify(){
+		Thread thread = iRenderThread;
+		iRenderThread = null;
+		if(thread!=null){
+			LockSupport.unpark(thread);
+			try{
+				thread.join();
+			}
+			catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+		}
+		super.removeNotify();
+	}
+
+	/**
+	 * The render loop - renders a frame whenever one is due and there is something new to show
+	 */
+	public void run(){
+		BufferStrategy strategy = getBufferStrategy();
+		GameState shown = null;
+		long nextFrameNanos = System.nanoTime();
+		while(iRenderThread==Thread.currentThread()){
+			long wait = nextFrameNanos - System.nanoTime();
+			if(wait>0){
+				LockSupport.parkNanos(wait);
+				continue;
+			}
+			nextFrameNanos+=iFrameNanos;
+			if(nextFrameNanos-System.nanoTime()<0){
+				//a frame or more behind, start again from now rather than rushing to catch up
+				nextFrameNanos = System.nanoTime() + iFrameNanos;
+			}
+			GameState state = iLoop.getState();
+			if(state==null || (state==shown && !strategy.contentsLost())){
+				continue;
+			}
+			try{
+				renderFrame(strategy, state);
+				if(state!=shown && state.getInputNanos()!=0){
+					//the first frame showing moves made by key presses
+					GameEvents.inputPainted(state.getInputNanos());
+				}
+				shown = state;
+			}
+			catch(RuntimeException e){
+				//e.g. the buffers were released while rendering, try again next frame
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Renders a snapshot into the back buffer and shows it, repeating if the contents of the
+	 * buffers are lost meanwhile
+	 *
+	 * @param strategy
+	 * @param state
+	 */
+	private void renderFrame(BufferStrategy strategy, GameState state){
+		long start = GameMetrics.ENABLED ? System.nanoTime() : 0;
+		do{
+			do{
+				Graphics g = strategy.getDrawGraphics();
+				try{
+					g.setColor(getBackground());
+					g.fillRect(0, 0, getWidth(), getHeight());
+					iRenderer.render(g, state, getGraphicsConfiguration());
+				}
+				finally{
+					g.dispose();
+				}
+			}
+			while(strategy.contentsRestored());
+			strategy.show();
+			Toolkit.getDefaultToolkit().sync();
+		}
+		while(strategy.contentsLost());
+		iFrameCount++;
+		if(GameMetrics.ENABLED){
+			GameMetrics.PAINT.recordSince(start);
+			GameMetrics.painted();
+		}
+	}
+
+	/**
+	 * Returns the number of frames rendered
+	 * @return iFrameCount
+	 */
+	public long getFrameCount(){
+		return iFrameCount;
+	}
+}
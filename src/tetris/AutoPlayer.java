@@ -0,0 +1,433 @@
+package tetris;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+
+/**
+ * MovePolicy that plays the game by itself, for soak testing and demos. For the active shape it
+ * tries every placement that can be reached by rotating and then moving sideways from where the
+ * shape is, followed by every reachable placement of the next shape, and scores the board each
+ * pair of placements leaves with the classic hand-tuned heuristic - aggregate height, holes and
+ * bumpiness against the lines cleared. The active shape is then rotated, moved and hard dropped
+ * into the best placement through the engine's move/rotate API.
+ *
+ * The placements of the active shape are searched in parallel on a ForkJoinPool - the pool the
+ * player is called from if it is called from one, such as the pool of a Simulator, otherwise the
+ * pool it was created with, by default the common pool. The player never shuts a pool down; a pool
+ * passed in belongs to the caller, who shuts it down once done with it. Every task works
+ * on boards of its own, restored from a copy of the engine's board with Board.copyFrom before each
+ * placement is tried, so the search allocates a handful of boards rather than one per placement and
+ * never touches the engine. The search is deterministic - ties go to the placement found first -
+ * so a simulated game plays out the same regardless of the number of threads.
+ *
+ * The search can look further ahead than the next shape, over a number of shapes whose types are
+ * not known yet, scoring each position by the average over every type of the best placement of
+ * that type. The same boards come up again and again in such a search, reached by placements made
+ * in a different order and searched again for the following move, so the best score of a shape on
+ * a board is kept in an EvaluationCache keyed by the Zobrist hash of the board combined with keys
+ * for the shape and the number of shapes still to come.
+ *
+ * Other than the cache, whose scores depend only on their keys, the policy keeps no state between
+ * moves and can be shared between games.
+ *
+ * @author emma
+ * @see MovePolicy
+ * @see Simulator
+ * @see GameLoop
+ */
+public class AutoPlayer implements MovePolicy {
+
+	//weights of the features of a board
+	public static final double HEIGHT_WEIGHT = -0.510066; //per row of every column's height
+	public static final double LINES_WEIGHT = 0.760666; //per line cleared
+	public static final double HOLES_WEIGHT = -0.35663; //per empty cell with a block above it
+	public static final double BUMPINESS_WEIGHT = -0.184483; //per row of difference between neighbouring columns
+	public static final double GAME_OVER_SCORE = -1e9; //score of a placement that ends the game
+
+	public static final int MAX_LOOKAHEAD = 2; //most shapes of unknown type searched after the next shape
+	public static final int DEFAULT_CACHE_SIZE = 1<<16; //scores cached by default
+
+	private static final int MAX_PLACEMENTS = 4*(Board.COLUMNS+4); //most placements of a shape
+	private static final int PLACEMENTS_PER_TASK = 4; //placements below which a task is no longer split
+	private static final long[][] SHAPE_KEYS = new long[ShapeType.count()][MAX_LOOKAHEAD+1]; //Zobrist key of each type and lookahead
+	static{
+		Random random = new Random(0x2545F4914F6CDD1DL); //fixed so that keys are the same on every run
+		for(int i=0; i<SHAPE_KEYS.length; i++){
+			for(int j=0; j<SHAPE_KEYS[i].length; j++){
+				SHAPE_KEYS[i][j] = random.nextLong();
+			}
+		}
+	}
+
+	private final ForkJoinPool iPool; //searches the placements when not called from a pool
+	private final int iLookahead; //shapes of unknown type searched after the next shape
+	private final EvaluationCache iCache; //best scores of shapes on boards, null if not caching
+
+	/**
+	 * Creates a player searching the active and next shapes on the common pool
+	 */
+	public AutoPlayer(){
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a player searching the active and next shapes on the given pool
+	 * @param pool
+	 */
+	public AutoPlayer(ForkJoinPool pool){
+		this(pool, 0, new EvaluationCache(DEFAULT_CACHE_SIZE));
+	}
+
+	/**
+	 * Creates a player
+	 *
+	 * @param pool the pool to search on when not called from a pool, e.g. ForkJoinPool.commonPool()
+	 * @param lookahead the number of shapes of unknown type to search after the next shape, up to MAX_LOOKAHEAD
+	 * @param cache the cache of scores, null to search without one
+	 */
+	public AutoPlayer(ForkJoinPool pool, int lookahead, EvaluationCache cache){
+		if(lookahead<0 || lookahead>MAX_LOOKAHEAD){
+			throw new IllegalArgumentException("The lookahead must be from 0 to " + MAX_LOOKAHEAD + ", was " + lookahead);
+		}
+		iPool = pool;
+		iLookahead = lookahead;
+		iCache = cache;
+	}
+
+	/**
+	 * Moves the active shape into the best placement and drops it. Does nothing once the
+	 * shape has landed, until the next shape is created.
+	 *
+	 * @see MovePolicy#makeMoves(GameEngine, SplittableRandom)
+	 */
+	@Override
+	public void makeMoves(GameEngine engine, SplittableRandom random){
+		if(engine.isGameOver() || engine.getActiveBlock().getDropDistance(engine.getBoard())==0){
+			return;
+		}
+		Placement placement = findPlacement(engine);
+		if(placement==null){
+			return;
+		}
+		for(int i=0; i<placement.getRotations(); i++){
+			if(!engine.rotate()){
+				return;
+			}
+		}
+		int x = engine.getActiveBlock().getStdX();
+		while(x<placement.getStdX() && engine.moveRight()){
+			x++;
+		}
+		while(x>placement.getStdX() && engine.moveLeft()){
+			x--;
+		}
+		engine.hardDrop();
+	}
+
+	/**
+	 * Finds the best placement of the active shape of a game, or null if it cannot be placed
+	 * @param engine
+	 */
+	public Placement findPlacement(GameEngine engine){
+		ComplexShape shape = engine.getActiveBlock();
+		Board board = new Board(engine.getBoard());
+		int[] rotations = new int[MAX_PLACEMENTS];
+		int[] stdXs = new int[MAX_PLACEMENTS];
+		int count = reachablePlacements(board, shape.getType(), shape.getOrientation(), shape.getStdX(), shape.getStdY(), rotations, stdXs);
+		if(count==0){
+			return null;
+		}
+		PlacementTask task = new PlacementTask(board, shape, engine.getNextType(), rotations, stdXs, 0, count);
+		if(ForkJoinTask.inForkJoinPool()){
+			//already running on a pool, e.g. a game played by a Simulator
+			return task.invoke();
+		}
+		return iPool.invoke(task);
+	}
+
+	/**
+	 * Lists the placements of a shape that can be reached by rotating it where it is and then
+	 * moving it sideways, as the number of rotations and the standard x coordinate of the frame
+	 * of each.
+	 *
+	 * @param board
+	 * @param type
+	 * @param orientation the current orientation of the shape
+	 * @param x the current standard x coordinate of the frame
+	 * @param y the current standard y coordinate of the frame
+	 * @param rotations filled with the number of rotations of each placement
+	 * @param stdXs filled with the x coordinate of each placement
+	 * @return the number of placements
+	 */
+	static int reachablePlacements(Board board, ShapeType type, int orientation, int x, int y, int[] rotations, int[] stdXs){
+		int count = 0;
+		int current = orientation;
+		for(int rotation=0; rotation<type.getOrientationCount(); rotation++){
+			ShapeType.Orientation o = type.getOrientation(current);
+			if(!board.fits(o, x, y)){
+				//the shape cannot rotate any further where it is
+				break;
+			}
+			rotations[count] = rotation;
+			stdXs[count++] = x;
+			for(int left=x-1; board.fits(o, left, y); left--){
+				rotations[count] = rotation;
+				stdXs[count++] = left;
+			}
+			for(int right=x+1; board.fits(o, right, y); right++){
+				rotations[count] = rotation;
+				stdXs[count++] = right;
+			}
+			current = type.nextOrientation(current);
+		}
+		return count;
+	}
+
+	/**
+	 * Drops a shape from the given position onto a board and clears any full lines, as the engine
+	 * would once it settles
+	 *
+	 * @param board
+	 * @param orientation
+	 * @param x
+	 * @param y
+	 * @return the number of lines cleared, or -1 if settling there ends the game
+	 */
+	static int drop(Board board, ShapeType.Orientation orientation, int x, int y){
+		int landedY = y + board.dropDistance(orientation, x, y);
+		if(landedY+orientation.getMinY()<1){
+			return -1;
+		}
+		for(int i=0; i<4; i++){
+			board.setBlock(x+orientation.getCellX(i), landedY+orientation.getCellY(i), ValidColour.fromIndex(0));
+		}
+		return board.clearFullLines();
+	}
+
+	/**
+	 * Returns the score of the best placement of a newly created shape of the given type followed
+	 * by the given number of shapes of unknown type, including the board they leave, or
+	 * GAME_OVER_SCORE if every placement ends the game. Looked up in the cache first.
+	 *
+	 * @param board the board the shape is created on, not modified
+	 * @param type
+	 * @param remaining the number of shapes of unknown type still to come
+	 * @param scratch
+	 * @param depth the index of the scratch board to try the placements on
+	 */
+	private double bestScore(Board board, ShapeType type, int remaining, Scratch scratch, int depth){
+		long key = board.getHash() ^ SHAPE_KEYS[type.ordinal()][remaining];
+		if(iCache!=null){
+			double cached = iCache.get(key);
+			if(!Double.isNaN(cached)){
+				return cached;
+			}
+		}
+		double best = GAME_OVER_SCORE;
+		//a shape that could not move after being created ends the game
+		if(board.fits(type.getOrientation(0), type.getSpawnX(), type.getSpawnY()+1)){
+			Board placed = scratch.iBoards[depth];
+			int[] rotations = scratch.iRotations[depth];
+			int[] stdXs = scratch.iStdXs[depth];
+			int count = reachablePlacements(board, type, 0, type.getSpawnX(), type.getSpawnY(), rotations, stdXs);
+			for(int i=0; i<count; i++){
+				placed.copyFrom(board);
+				int lines = drop(placed, type.getOrientation(rotations[i]), stdXs[i], type.getSpawnY());
+				if(lines>=0){
+					double score = remaining==0 ? evaluate(placed) : expectedScore(placed, remaining, scratch, depth+1);
+					best = Math.max(best, (lines*LINES_WEIGHT) + score);
+				}
+			}
+		}
+		if(iCache!=null){
+			iCache.put(key, best);
+		}
+		return best;
+	}
+
+	/**
+	 * Returns the average over every type of shape of the best score of that type on a board
+	 *
+	 * @param board
+	 * @param remaining the number of shapes of unknown type still to come, including this one
+	 * @param scratch
+	 * @param depth
+	 */
+	private double expectedScore(Board board, int remaining, Scratch scratch, int depth){
+		double total = 0;
+		for(int i=0; i<ShapeType.count(); i++){
+			total+=bestScore(board, ShapeType.fromIndex(i), remaining-1, scratch, depth);
+		}
+		return total/ShapeType.count();
+	}
+
+	/**
+	 * Returns the cache of scores, or null if the player does not cache them
+	 * @return iCache
+	 */
+	public EvaluationCache getCache(){
+		return iCache;
+	}
+
+	/**
+	 * Scores the features of a board other than the lines cleared - the higher the better
+	 * @param board
+	 */
+	public static double evaluate(Board board){
+		int height = 0;
+		int bumpiness = 0;
+		int previous = -1;
+		for(int x=0; x<Board.COLUMNS; x++){
+			int columnHeight = Board.ROWS - board.getColumnTop(x);
+			height+=columnHeight;
+			if(previous>=0){
+				bumpiness+=Math.abs(columnHeight-previous);
+			}
+			previous = columnHeight;
+		}
+		int holes = 0;
+		int covered = 0; //columns with a block above the current row
+		for(int y=0; y<Board.ROWS; y++){
+			int row = board.getRow(y);
+			holes+=Integer.bitCount(covered & ~row);
+			covered |= row;
+		}
+		return (height*HEIGHT_WEIGHT) + (holes*HOLES_WEIGHT) + (bumpiness*BUMPINESS_WEIGHT);
+	}
+
+	/**
+	 * A placement of the active shape - how many times to rotate it and where to move it before
+	 * dropping it - and its score. Immutable.
+	 */
+	public static final class Placement {
+
+		private final int iIndex; //the order the placement was found in, to break ties
+		private final int iRotations;
+		private final int iStdX;
+		private final double iScore;
+
+		Placement(int index, int rotations, int stdX, double score){
+			iIndex = index;
+			iRotations = rotations;
+			iStdX = stdX;
+			iScore = score;
+		}
+
+		/**
+		 * Returns the better of two placements, the one found first if they score the same
+		 * @param other
+		 */
+		Placement better(Placement other){
+			if(iScore>other.iScore || (iScore==other.iScore && iIndex<other.iIndex)){
+				return this;
+			}
+			return other;
+		}
+
+		/**
+		 * Returns the number of times the shape is rotated
+		 * @return iRotations
+		 */
+		public int getRotations(){
+			return iRotations;
+		}
+
+		/**
+		 * Returns the standard x coordinate the frame of the shape is moved to
+		 * @return iStdX
+		 */
+		public int getStdX(){
+			return iStdX;
+		}
+
+		/**
+		 * Returns the score of the placement
+		 * @return iScore
+		 */
+		public double getScore(){
+			return iScore;
+		}
+	}
+
+	/**
+	 * The boards and placement lists a task tries placements with, one of each per shape searched
+	 */
+	private static class Scratch {
+
+		private final Board[] iBoards;
+		private final int[][] iRotations;
+		private final int[][] iStdXs;
+
+		Scratch(int depth){
+			iBoards = new Board[depth];
+			iRotations = new int[depth][MAX_PLACEMENTS];
+			iStdXs = new int[depth][MAX_PLACEMENTS];
+			for(int i=0; i<depth; i++){
+				iBoards[i] = new Board();
+			}
+		}
+	}
+
+	/**
+	 * Task scoring the placements of the active shape with indexes from iFrom (inclusive) to iTo
+	 * (exclusive), splitting itself in half until few enough placements remain.
+	 */
+	private class PlacementTask extends RecursiveTask<Placement> {
+
+		private final Board iBoard; //the board the active shape is placed on, shared and never modified
+		private final ComplexShape iShape; //the active shape, only read
+		private final ShapeType iNextType;
+		private final int[] iRotations;
+		private final int[] iStdXs;
+		private final int iFrom;
+		private final int iTo;
+
+		PlacementTask(Board board, ComplexShape shape, ShapeType nextType, int[] rotations, int[] stdXs, int from, int to){
+			iBoard = board;
+			iShape = shape;
+			iNextType = nextType;
+			iRotations = rotations;
+			iStdXs = stdXs;
+			iFrom = from;
+			iTo = to;
+		}
+
+		@Override
+		protected Placement compute(){
+			if(iTo-iFrom<=PLACEMENTS_PER_TASK){
+				return scorePlacements();
+			}
+			int middle = (iFrom+iTo) >>> 1;
+			PlacementTask lower = new PlacementTask(iBoard, iShape, iNextType, iRotations, iStdXs, iFrom, middle);
+			lower.fork();
+			Placement upper = new PlacementTask(iBoard, iShape, iNextType, iRotations, iStdXs, middle, iTo).compute();
+			return lower.join().better(upper);
+		}
+
+		/**
+		 * Scores each placement of the task, followed by the best placements of the shapes after it
+		 */
+		private Placement scorePlacements(){
+			ShapeType type = iShape.getType();
+			Scratch scratch = new Scratch(iLookahead+2);
+			Board placed = scratch.iBoards[0];
+			Placement best = null;
+			for(int i=iFrom; i<iTo; i++){
+				placed.copyFrom(iBoard);
+				ShapeType.Orientation orientation = type.getOrientation((iShape.getOrientation()+iRotations[i]) % type.getOrientationCount());
+				int lines = drop(placed, orientation, iStdXs[i], iShape.getStdY());
+				double score = GAME_OVER_SCORE;
+				if(lines>=0){
+					score = (lines*LINES_WEIGHT) + bestScore(placed, iNextType, iLookahead, scratch, 1);
+				}
+				Placement placement = new Placement(i, iRotations[i], iStdXs[i], score);
+				best = best==null ? placement : best.better(placement);
+			}
+			return best;
+		}
+	}
+}
@@ -1,3 +1,5 @@
+package tetris;
+
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
@@ -80,6 +82,14 @@ public class Block {
 		return iColour;
 	}
 	
+	/**
+	 * Mutator method for the iColour instance variable
+	 * @param aColour
+	 */
+	public void setColour(Color aColour){
+		iColour = aColour;
+	}
+	
 	/**
 	 * Mutator method for the x coordinate
 	 * @param aX
@@ -170,12 +180,26 @@ public class Block {
 	 */
 	public void paintSquare(Graphics g){
 		if(iIsVisible){
-			g.setColor(iColour);
-			g.fillRect(iX, iY, WIDTH, HEIGHT);
-			g.drawRect(iX, iY, WIDTH, HEIGHT);
+			paintSquare(g, iColour, iX, iY);
 		}
 	}
 	
+	/**
+	 * Paints a square of the given colour at the specified pixel coordinates in the same way a
+	 * visible block is painted. Used by the canvas to paint the settled blocks of the board, which
+	 * are not stored as Block objects.
+	 * @param g
+	 * @param colour
+	 * @param x
+	 * @param y
+	 * @see Board
+	 */
+	public static void paintSquare(Graphics g, Color colour, int x, int y){
+		g.setColor(colour);
+		g.fillRect(x, y, WIDTH, HEIGHT);
+		g.drawRect(x, y, WIDTH, HEIGHT);
+	}
+	
 	/**
 	 * Returns boolean value determined by whether block has positive y coordinate
 	 * @return iY>-1
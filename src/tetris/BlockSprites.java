@@ -0,0 +1,148 @@
+package tetris;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+
+/**
+ * Pre-rendered images of a block in each ValidColour, so that painting a block is a single
+ * drawImage rather than setting the colour and filling and outlining a rectangle every frame.
+ * The images are created compatible with the GraphicsConfiguration they will be drawn to, which
+ * lets Java2D keep them in video memory as managed images; if the configuration changes (e.g. the
+ * window is moved to another screen) a new set of sprites should be created for it.
+ * 
+ * Each sprite covers the same pixels as Block.paintSquare - the block plus the extra pixel of its
+ * outline on the right and bottom - and can optionally be bevelled, lighter on the top and left
+ * edges and darker on the bottom and right.
+ * 
+ * Every colour also has a translucent ghost sprite, used to show where the active shape would land.
+ * The translucency is rendered into the sprite once, so drawing a ghost costs the same as a block.
+ * 
+ * @author emma
+ * @see Block
+ * @see ValidColour
+ * @see Canvas
+ */
+public class BlockSprites {
+	
+	public static final int SPRITE_WIDTH = Block.WIDTH + 1; //width of a block including its outline
+	public static final int SPRITE_HEIGHT = Block.HEIGHT + 1; //height of a block including its outline
+	private static final int BEVEL = 2; //width in pixels of the bevelled edges
+	private static final float GHOST_ALPHA = 0.3f; //opacity of the ghost sprites
+	
+	private final GraphicsConfiguration iConfiguration; //the configuration the sprites were created for
+	private final BufferedImage[] iSprites; //indexed by ValidColour index
+	private final BufferedImage[] iGhostSprites; //indexed by ValidColour index
+	
+	/**
+	 * Creates a sprite for every ValidColour
+	 * 
+	 * @param configuration the configuration the sprites will be drawn to, or null if unknown
+	 * @param bevelled whether to bevel the edges of the sprites
+	 */
+	public BlockSprites(GraphicsConfiguration configuration, boolean bevelled){
+		iConfiguration = configuration;
+		ValidColour[] colours = ValidColour.values();
+		iSprites = new BufferedImage[colours.length];
+		iGhostSprites = new BufferedImage[colours.length];
+		for(int i=0; i<colours.length; i++){
+			iSprites[colours[i].getIndex()] = createSprite(colours[i].getColour(), bevelled);
+			iGhostSprites[colours[i].getIndex()] = createGhostSprite(iSprites[colours[i].getIndex()]);
+		}
+	}
+	
+	/**
+	 * Renders a translucent copy of a sprite
+	 * @param sprite
+	 */
+	private BufferedImage createGhostSprite(BufferedImage sprite){
+		BufferedImage ghost;
+		if(iConfiguration!=null){
+			ghost = iConfiguration.createCompatibleImage(SPRITE_WIDTH, SPRITE_HEIGHT, Transparency.TRANSLUCENT);
+		}
+		else{
+			ghost = new BufferedImage(SPRITE_WIDTH, SPRITE_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+		}
+		Graphics2D g = ghost.createGraphics();
+		try{
+			g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC, GHOST_ALPHA));
+			g.drawImage(sprite, 0, 0, null);
+		}
+		finally{
+			g.dispose();
+		}
+		return ghost;
+	}
+	
+	/**
+	 * Renders the sprite of a colour
+	 * @param colour
+	 * @param bevelled
+	 */
+	private BufferedImage createSprite(Color colour, boolean bevelled){
+		BufferedImage sprite;
+		if(iConfiguration!=null){
+			sprite = iConfiguration.createCompatibleImage(SPRITE_WIDTH, SPRITE_HEIGHT, Transparency.OPAQUE);
+		}
+		else{
+			sprite = new BufferedImage(SPRITE_WIDTH, SPRITE_HEIGHT, BufferedImage.TYPE_INT_RGB);
+		}
+		Graphics g = sprite.getGraphics();
+		try{
+			Block.paintSquare(g, colour, 0, 0);
+			if(bevelled){
+				Color light = colour.brighter();
+				Color dark = colour.darker();
+				for(int i=0; i<BEVEL; i++){
+					g.setColor(light);
+					g.drawLine(i, i, Block.WIDTH-1-i, i);//top
+					g.drawLine(i, i, i, Block.HEIGHT-1-i);//left
+					g.setColor(dark);
+					g.drawLine(i+1, Block.HEIGHT-i, Block.WIDTH-i, Block.HEIGHT-i);//bottom
+					g.drawLine(Block.WIDTH-i, i+1, Block.WIDTH-i, Block.HEIGHT-i);//right
+				}
+			}
+		}
+		finally{
+			g.dispose();
+		}
+		return sprite;
+	}
+	
+	/**
+	 * Returns true if the sprites were created for the given configuration
+	 * @param configuration
+	 */
+	public boolean isCompatible(GraphicsConfiguration configuration){
+		return iConfiguration==configuration;
+	}
+	
+	/**
+	 * Draws the sprite of a colour with its top-left corner at the specified pixel coordinates
+	 * 
+	 * @param g
+	 * @param colour
+	 * @param x
+	 * @param y
+	 */
+	public void paintSquare(Graphics g, ValidColour colour, int x, int y){
+		g.drawImage(iSprites[colour.getIndex()], x, y, null);
+	}
+	
+	/**
+	 * Draws the ghost sprite of a colour with its top-left corner at the specified pixel coordinates
+	 * 
+	 * @param g
+	 * @param colour
+	 * @param x
+	 * @param y
+	 */
+	public void paintGhostSquare(Graphics g, ValidColour colour, int x, int y){
+		g.drawImage(iGhostSprites[colour.getIndex()], x, y, null);
+	}
+}
@@ -0,0 +1,395 @@
+package tetris;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Represents the blocks that have settled on the canvas. Rather than keeping a Block object for
+ * every possible coordinate, occupancy is stored as one int bitmask per row (bit x is set when
+ * column x of that row is occupied) and the colour of each occupied cell is stored as the index
+ * of its ValidColour in a parallel byte array.
+ *
+ * Coordinates are standardised coordinates, i.e. the pixel coordinates divided by the block
+ * width/height. Cells outside of the left, right and bottom edges of the board are treated as
+ * occupied so that collision checks need no separate boundary tests, whereas rows above the top of
+ * the board are treated as empty since shapes are allowed to spawn partly above it.
+ *
+ * The board also keeps the topmost occupied row of every column, updated as blocks are set and
+ * lines cleared, so that how far a shape can drop is found without stepping it down row by row.
+ *
+ * Finally the board keeps a Zobrist hash of its occupancy - the XOR of a fixed random key for every
+ * occupied cell - updated with a single XOR as blocks are set, so that boards with the same blocks
+ * (in any colours) can be recognised by a 64 bit key, e.g. to cache evaluations of them.
+ *
+ * A board can be written to and read from a buffer in a fixed number of bytes, SNAPSHOT_BYTES -
+ * each row as a bitmask followed by the colour indices of the cells packed two to a byte.
+ *
+ * @author emma
+ * @see Canvas
+ * @see ComplexShape
+ * @see ValidColour
+ */
+public class Board {
+
+	public static final int COLUMNS = Canvas.WIDTH/Block.WIDTH; //the number of columns on the board
+	public static final int ROWS = Canvas.HEIGHT/Block.HEIGHT; //the number of rows on the board
+	public static final int FULL_ROW = (1<<COLUMNS) - 1; //the bitmask of a row with every column occupied
+	public static final int SNAPSHOT_BYTES = (ROWS*2) + ((ROWS*COLUMNS)+1)/2; //bytes written by writeTo(ByteBuffer)
+	private static final long[] CELL_KEYS = new long[ROWS*COLUMNS]; //Zobrist key of each cell, row major
+	static{
+		Random random = new Random(0x5DEECE66DL); //fixed so that hashes are the same on every run
+		for(int i=0; i<CELL_KEYS.length; i++){
+			CELL_KEYS[i] = random.nextLong();
+		}
+	}
+
+	private final int[] iRows = new int[ROWS]; //occupancy bitmask of each row, bit x represents column x
+	private final byte[] iColours = new byte[ROWS*COLUMNS]; //ValidColour index of each cell, row major
+	private final int[] iColumnTops = new int[COLUMNS]; //topmost occupied row of each column, ROWS if empty
+	private int iVersion = 0; //changes whenever the contents of the board change
+	private long iHash = 0; //Zobrist hash of the occupied cells
+
+	/**
+	 * Creates an empty board
+	 */
+	public Board(){
+		Arrays.fill(iColumnTops, ROWS);
+	}
+
+	/**
+	 * Clone constructor
+	 *
+	 * @param board
+	 */
+	public Board(Board board){
+		copyFrom(board);
+	}
+
+	/**
+	 * Overwrites this board with the contents of another, including its version
+	 *
+	 * @param board
+	 */
+	public void copyFrom(Board board){
+		System.arraycopy(board.iRows, 0, iRows, 0, ROWS);
+		System.arraycopy(board.iColours, 0, iColours, 0, ROWS*COLUMNS);
+		System.arraycopy(board.iColumnTops, 0, iColumnTops, 0, COLUMNS);
+		iVersion = board.iVersion;
+		iHash = board.iHash;
+	}
+
+	/**
+	 * Empties the board in place, e.g. for a new game
+	 */
+	public void clear(){
+		Arrays.fill(iRows, 0);
+		Arrays.fill(iColours, (byte)0);
+		Arrays.fill(iColumnTops, ROWS);
+		iHash = 0;
+		iVersion++;
+	}
+
+	/**
+	 * Writes the contents of the board to a buffer, in SNAPSHOT_BYTES bytes - the bitmask of
+	 * each row as a short, then the colour index of every cell as a nibble, two cells to a byte.
+	 * Empty cells are written as 0, whatever colour they last held, so that boards with the same
+	 * blocks are always written as the same bytes.
+	 *
+	 * @param buffer
+	 * @see #readFrom(ByteBuffer)
+	 */
+	public void writeTo(ByteBuffer buffer){
+		for(int y=0; y<ROWS; y++){
+			buffer.putShort((short)iRows[y]);
+		}
+		for(int i=0; i<ROWS*COLUMNS; i+=2){
+			int high = i+1<ROWS*COLUMNS ? colourAt(i+1) : 0;
+			buffer.put((byte)((high<<4) | colourAt(i)));
+		}
+	}
+
+	/**
+	 * Returns the colour index of a cell for writing, 0 if the cell is empty
+	 * @param cell row major index of the cell
+	 */
+	private int colourAt(int cell){
+		return (iRows[cell/COLUMNS] & (1<<(cell%COLUMNS)))!=0 ? iColours[cell] : 0;
+	}
+
+	/**
+	 * Overwrites this board with contents written by writeTo(ByteBuffer). The whole board is
+	 * read and checked before any of it is copied, so the board is left as it was if the buffer
+	 * does not hold a valid board.
+	 *
+	 * @param buffer
+	 * @throws IllegalArgumentException if the buffer does not hold a valid board
+	 */
+	public void readFrom(ByteBuffer buffer){
+		int[] rows = new int[ROWS];
+		byte[] colours = new byte[ROWS*COLUMNS];
+		for(int y=0; y<ROWS; y++){
+			rows[y] = buffer.getShort() & 0xFFFF;
+			if((rows[y] & ~FULL_ROW)!=0){
+				throw new IllegalArgumentException("Row " + y + " has blocks beyond the edge of the board");
+			}
+		}
+		for(int i=0; i<ROWS*COLUMNS; i+=2){
+			int packed = buffer.get();
+			colours[i] = colour(rows, i, packed & 0xF);
+			if(i+1<ROWS*COLUMNS){
+				colours[i+1] = colour(rows, i+1, (packed>>>4) & 0xF);
+			}
+		}
+		System.arraycopy(rows, 0, iRows, 0, ROWS);
+		System.arraycopy(colours, 0, iColours, 0, ROWS*COLUMNS);
+		updateColumnTops();
+		updateHash();
+		iVersion++;
+	}
+
+	/**
+	 * Checks the colour index of a cell read from a buffer. Empty cells must be written as 0.
+	 * @param rows the rows read from the buffer
+	 * @param cell row major index of the cell
+	 * @param index
+	 */
+	private static byte colour(int[] rows, int cell, int index){
+		if(index>=ValidColour.count()){
+			throw new IllegalArgumentException("Unknown colour " + index);
+		}
+		if(index!=0 && (rows[cell/COLUMNS] & (1<<(cell%COLUMNS)))==0){
+			throw new IllegalArgumentException("Empty cell " + (cell%COLUMNS) + "," + (cell/COLUMNS) + " has colour " + index);
+		}
+		return (byte)index;
+	}
+
+	/**
+	 * Returns the Zobrist hash of the occupied cells. Boards with the same cells occupied have
+	 * the same hash, whatever the colours of their blocks.
+	 *
+	 * @return iHash
+	 */
+	public long getHash(){
+		return iHash;
+	}
+
+	/**
+	 * Returns the version of the board. The version changes every time a block is set or lines
+	 * are cleared, and a copy of a board has the same version, so comparing the versions of a board
+	 * and an earlier copy of it is a cheap way to tell whether it has changed since.
+	 *
+	 * @return iVersion
+	 */
+	public int getVersion(){
+		return iVersion;
+	}
+
+	/**
+	 * Returns true if the cell at the specified standard coordinates is occupied. Cells beyond the
+	 * left, right or bottom edge of the board are always occupied, cells above the top never are.
+	 *
+	 * @param x
+	 * @param y
+	 */
+	public boolean isOccupied(int x, int y){
+		if(x<0 || x>=COLUMNS || y>=ROWS){
+			return true;
+		}
+		if(y<0){
+			return false;
+		}
+		return (iRows[y] & (1<<x))!=0;
+	}
+
+	/**
+	 * Returns true if a shape in the given orientation, with the top-left of its frame at the
+	 * specified standard coordinates, would lie entirely within the board without overlapping
+	 * any occupied cell. Rows of the shape above the top of the board are allowed.
+	 *
+	 * @param orientation
+	 * @param x
+	 * @param y
+	 * @see ShapeType.Orientation
+	 */
+	public boolean fits(ShapeType.Orientation orientation, int x, int y){
+		if(x+orientation.getMinX()<0 || x+orientation.getMaxX()>=COLUMNS || y+orientation.getMaxY()>=ROWS){
+			return false;
+		}
+		for(int row=Math.max(orientation.getMinY(), -y); row<=orientation.getMaxY(); row++){
+			if((iRows[y+row] & orientation.getRowMask(row, x))!=0){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns how many rows a shape in the given orientation, with the top-left of its frame at
+	 * the specified standard coordinates, can move straight down before it lands. The shape must
+	 * fit where it is.
+	 *
+	 * The landing row is found from the top of each column the shape covers, in time proportional
+	 * to the width of the shape. Only if part of the shape is already below the top of its column,
+	 * having been slid under an overhang, is it stepped down a row at a time instead.
+	 *
+	 * @param orientation
+	 * @param x
+	 * @param y
+	 * @see #fits(ShapeType.Orientation, int, int)
+	 */
+	public int dropDistance(ShapeType.Orientation orientation, int x, int y){
+		int distance = Integer.MAX_VALUE;
+		for(int column=orientation.getMinX(); column<=orientation.getMaxX(); column++){
+			int bottom = orientation.getBottom(column);
+			if(bottom>=0){
+				distance = Math.min(distance, iColumnTops[x+column] - (y+bottom) - 1);
+			}
+		}
+		if(distance<0){
+			//under an overhang, the tops of the columns say nothing about the cells below them
+			distance = 0;
+			while(fits(orientation, x, y+distance+1)){
+				distance++;
+			}
+		}
+		return distance;
+	}
+
+	/**
+	 * Returns the topmost occupied row of a column, or ROWS if the column is empty
+	 * @param x
+	 * @return iColumnTops[x]
+	 */
+	public int getColumnTop(int x){
+		return iColumnTops[x];
+	}
+
+	/**
+	 * Marks the cell at the specified standard coordinates as occupied by a block of the given colour
+	 *
+	 * @param x
+	 * @param y
+	 * @param colour
+	 */
+	public void setBlock(int x, int y, ValidColour colour){
+		if((iRows[y] & (1<<x))==0){
+			iHash ^= CELL_KEYS[(y*COLUMNS) + x];
+		}
+		iRows[y] |= 1<<x;
+		iColumnTops[x] = Math.min(iColumnTops[x], y);
+		iVersion++;
+		iColours[(y*COLUMNS) + x] = (byte)colour.getIndex();
+	}
+
+	/**
+	 * Returns the colour of the block at the specified standard coordinates. Only meaningful
+	 * if the cell is occupied.
+	 *
+	 * @param x
+	 * @param y
+	 * @return the ValidColour of the cell
+	 */
+	public ValidColour getColour(int x, int y){
+		return ValidColour.fromIndex(iColours[(y*COLUMNS) + x]);
+	}
+
+	/**
+	 * Returns the occupancy bitmask of a row
+	 * @param y
+	 * @return iRows[y]
+	 */
+	public int getRow(int y){
+		return iRows[y];
+	}
+
+	/**
+	 * Returns a bitmask of the cells of a row that differ between this board and another -
+	 * cells occupied on one board but not the other, or occupied on both in different colours.
+	 *
+	 * @param board
+	 * @param y
+	 */
+	public int getChangedCells(Board board, int y){
+		int changed = iRows[y] ^ board.iRows[y];
+		int both = iRows[y] & board.iRows[y];
+		for(int x=0; both!=0; x++, both>>>=1){
+			if((both & 1)!=0 && iColours[(y*COLUMNS) + x]!=board.iColours[(y*COLUMNS) + x]){
+				changed |= 1<<x;
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Returns true if every column of the row is occupied
+	 * @param y
+	 */
+	public boolean isFullLine(int y){
+		return iRows[y]==FULL_ROW;
+	}
+
+	/**
+	 * Removes every full line from the board in a single pass from the bottom row upwards,
+	 * compacting the remaining rows downwards and leaving empty rows at the top. Handles
+	 * any number of simultaneous full lines.
+	 *
+	 * @return the number of lines removed
+	 */
+	public int clearFullLines(){
+		int target = ROWS - 1; //the row the next non-full row is copied into
+		for(int y=ROWS-1; y>=0; y--){
+			int row = iRows[y];
+			if(row==FULL_ROW){
+				continue;
+			}
+			if(target!=y){
+				iRows[target] = row;
+				System.arraycopy(iColours, y*COLUMNS, iColours, target*COLUMNS, COLUMNS);
+			}
+			target--;
+		}
+		int cleared = target + 1;
+		for(int y=0; y<cleared; y++){
+			iRows[y] = 0;
+		}
+		if(cleared>0){
+			updateColumnTops();
+			updateHash();
+			iVersion++;
+		}
+		return cleared;
+	}
+
+	/**
+	 * Recalculates the Zobrist hash from the occupied cells, after rows have moved
+	 */
+	private void updateHash(){
+		long hash = 0;
+		for(int y=0; y<ROWS; y++){
+			int row = iRows[y];
+			while(row!=0){
+				hash ^= CELL_KEYS[(y*COLUMNS) + Integer.numberOfTrailingZeros(row)];
+				row &= row-1;
+			}
+		}
+		iHash = hash;
+	}
+
+	/**
+	 * Recalculates the topmost occupied row of every column, from the top row down until every
+	 * column that has a block has been found
+	 */
+	private void updateColumnTops(){
+		Arrays.fill(iColumnTops, ROWS);
+		int remaining = FULL_ROW; //columns whose top has not been found yet
+		for(int y=0; y<ROWS && remaining!=0; y++){
+			int found = iRows[y] & remaining;
+			remaining &= ~found;
+			while(found!=0){
+				iColumnTops[Integer.numberOfTrailingZeros(found)] = y;
+				found &= found-1;
+			}
+		}
+	}
+}
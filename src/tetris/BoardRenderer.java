@@ -0,0 +1,124 @@
+package tetris;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+
+/**
+ * Renders GameState snapshots. The settled blocks are kept in an off-screen layer that is only
+ * redrawn when they change, so rendering a frame is a single drawImage of the layer plus the four
+ * blocks of the ghost and the four of the active shape, however full the board is.
+ * Blocks are drawn from BlockSprites compatible with the GraphicsConfiguration being rendered to.
+ *
+ * Not thread safe - a renderer should only be used by the one thread that paints with it.
+ *
+ * @author emma
+ * @see Canvas
+ * @see ActiveCanvas
+ * @see BlockSprites
+ */
+public class BoardRenderer {
+
+	private BlockSprites iSprites; //pre-rendered blocks for the current GraphicsConfiguration
+	private BufferedImage iStackLayer; //the settled blocks rendered off-screen
+	private GameState iStackState; //the snapshot the stack layer was rendered from
+
+	/**
+	 * Renders a snapshot at the top left of the graphics, covering the whole of the
+	 * Canvas.WIDTH by Canvas.HEIGHT area
+	 *
+	 * @param g
+	 * @param state
+	 * @param configuration the configuration being rendered to, or null if unknown
+	 */
+	public void render(Graphics g, GameState state, GraphicsConfiguration configuration){
+		BlockSprites sprites = getSprites(configuration);
+		updateStackLayer(state, configuration);
+		g.drawImage(iStackLayer, 0, 0, null);
+		ValidColour activeColour = state.getActiveColour();
+		if(state.getGhostDistance()>0){
+			for(int i=0; i<4; i++){
+				sprites.paintGhostSquare(g, activeColour, state.getActiveStdX(i)*Block.WIDTH, state.getGhostStdY(i)*Block.HEIGHT);
+			}
+		}
+		for(int i=0; i<4; i++){
+			sprites.paintSquare(g, activeColour, state.getActiveStdX(i)*Block.WIDTH, state.getActiveStdY(i)*Block.HEIGHT);
+		}
+	}
+
+	/**
+	 * Returns the block sprites for a GraphicsConfiguration, creating them the first time and
+	 * again whenever the configuration changes. The stack layer is dropped along with old sprites,
+	 * so that it is recreated for the new configuration too.
+	 *
+	 * @param configuration
+	 */
+	private BlockSprites getSprites(GraphicsConfiguration configuration){
+		if(iSprites==null || !iSprites.isCompatible(configuration)){
+			iSprites = new BlockSprites(configuration, true);
+			iStackLayer = null;
+		}
+		return iSprites;
+	}
+
+	/**
+	 * Brings the stack layer up to date with the settled blocks of a snapshot, redrawing only
+	 * the rows that changed since the layer was last rendered. Creates the layer if it does not
+	 * exist yet.
+	 *
+	 * @param state
+	 * @param configuration
+	 */
+	private void updateStackLayer(GameState state, GraphicsConfiguration configuration){
+		int minY = 0;
+		int maxY = Board.ROWS-1;
+		if(iStackLayer==null){
+			if(configuration!=null){
+				iStackLayer = configuration.createCompatibleImage(Canvas.WIDTH+1, Canvas.HEIGHT+1, Transparency.OPAQUE);
+			}
+			else{
+				iStackLayer = new BufferedImage(Canvas.WIDTH+1, Canvas.HEIGHT+1, BufferedImage.TYPE_INT_RGB);
+			}
+		}
+		else if(state.getBoardVersion()==iStackState.getBoardVersion()){
+			return;
+		}
+		else{
+			minY = Board.ROWS;
+			maxY = -1;
+			for(int y=0; y<Board.ROWS; y++){
+				if(state.getChangedCells(iStackState, y)!=0){
+					minY = Math.min(minY, y);
+					maxY = y;
+				}
+			}
+		}
+		iStackState = state;
+		if(maxY<0){
+			return;
+		}
+		Graphics g = iStackLayer.getGraphics();
+		try{
+			g.clipRect(0, minY*Block.HEIGHT, Canvas.WIDTH+1, ((maxY-minY+1)*Block.HEIGHT) + 1);
+			g.setColor(Color.WHITE);
+			g.fillRect(0, minY*Block.HEIGHT, Canvas.WIDTH+1, ((maxY-minY+1)*Block.HEIGHT) + 1);
+			//the outlines of the rows either side reach into the cleared rows, so redraw those too,
+			//clipped so that they do not paint over the rows beyond
+			int lastY = Math.min(maxY+1, Board.ROWS-1);
+			for(int y=Math.max(minY-1, 0); y<=lastY; y++){
+				int row = state.getRow(y);
+				while(row!=0){
+					int x = Integer.numberOfTrailingZeros(row);
+					row &= row-1;
+					iSprites.paintSquare(g, state.getColour(x, y), x*Block.WIDTH, y*Block.HEIGHT);
+				}
+			}
+		}
+		finally{
+			g.dispose();
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package tetris;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.swing.JPanel;
+
+
+/**
+ * Paints the latest snapshot of a game published by its GameLoop, in addition to registering
+ * the user's key presses and queuing them on the loop. Forms part of the MainWindow.
+ *
+ * The canvas is painted passively by Swing, with repaints requested as the loop publishes
+ * snapshots. ActiveCanvas is an alternative that renders on its own thread at a fixed rate.
+ * @author emma
+ * @see MainWindow
+ * @see GameLoop
+ * @see GameState
+ * @see BoardRenderer
+ * @see Block
+ * @see ComplexShape
+ */
+public class Canvas extends JPanel {
+
+	public static final int WIDTH = 260; //the width of the canvas in pixels
+	public static final int HEIGHT = 640; //the height of the canvas in pixels
+
+	private GameLoop loop; //runs the game that is painted and controlled by the canvas
+	private GameState lastState; //the snapshot the latest repaint request was made for
+	private BoardRenderer renderer = new BoardRenderer(); //renders the snapshots, only used on the event dispatch thread
+	private KeyControls controls; //queues the moves made by the user's key presses
+	private GameState lastPainted; //the latest snapshot painted, only used on the event dispatch thread
+
+	/**
+	 * Defines mouse listeners and key listeners. Also defines properties of the JPanel it extends.
+	 *
+	 * @param aLoop the loop running the game to paint and control
+	 */
+	public Canvas(GameLoop aLoop){
+		loop = aLoop;
+		this.addMouseListener(new MouseAdapter() {
+			public void mousePressed(MouseEvent e){
+				requestFocusInWindow();
+			}
+		});
+		controls = new KeyControls(loop);
+		this.addKeyListener(controls);
+
+		setPreferredSize(new Dimension(WIDTH, HEIGHT));
+		setOpaque(true);
+		setFocusable(true);
+		setBackground(Color.WHITE);
+	}
+
+	/**
+	 * Translates key presses into moves of the active shape, such as moving the shape
+	 * to the left when the left key is pressed, and queues them on the loop. The canvas is
+	 * repainted once the loop has made the move and published the result.
+	 *
+	 * @param e
+	 */
+	public void handleKeyPress(KeyEvent e){
+		controls.keyPressed(e);
+	}
+
+	/**
+	 * Generate a random x or y coord
+	 * @param isXCoord
+	 */
+	public static int generateRandomCoord(boolean isXCoord){
+		ThreadLocalRandom generator = ThreadLocalRandom.current();
+		if(isXCoord){
+			return (generator.nextInt(Canvas.WIDTH/Block.WIDTH)*Block.WIDTH) -1;
+		}
+		else{
+			return generator.nextInt(Canvas.HEIGHT/Block.HEIGHT)*Block.HEIGHT;
+		}
+		}
+
+	/**
+	 * Requests a repaint of only the parts of the canvas that differ between the previously
+	 * published snapshot and the new one - where the active shape and its ghost were, where they
+	 * are now and the settled blocks that changed. Called on the thread of the loop for every
+	 * published snapshot.
+	 *
+	 * @param state
+	 */
+	public void repaintChanges(GameState state){
+		if(GameMetrics.ENABLED){
+			GameMetrics.repaintRequested();
+		}
+		GameState previous = lastState;
+		lastState = state;
+		if(previous==null){
+			repaint();
+			return;
+		}
+		repaintActiveShape(previous);
+		repaintActiveShape(state);
+		if(state.getBoardVersion()==previous.getBoardVersion()){
+			//no settled blocks changed
+			return;
+		}
+		int minX = Board.COLUMNS;
+		int maxX = -1;
+		int minY = Board.ROWS;
+		int maxY = -1;
+		for(int y=0; y<Board.ROWS; y++){
+			int changed = state.getChangedCells(previous, y);
+			if(changed!=0){
+				minX = Math.min(minX, Integer.numberOfTrailingZeros(changed));
+				maxX = Math.max(maxX, 31-Integer.numberOfLeadingZeros(changed));
+				minY = Math.min(minY, y);
+				maxY = y;
+			}
+		}
+		if(maxY>=0){
+			repaintCells(minX, minY, maxX, maxY);
+		}
+	}
+
+	/**
+	 * Requests a repaint of the cells covered by the active shape of a snapshot and its ghost
+	 * @param state
+	 */
+	private void repaintActiveShape(GameState state){
+		int minX = Board.COLUMNS;
+		int maxX = -1;
+		int minY = Board.ROWS;
+		int maxY = -Board.ROWS;
+		for(int i=0; i<4; i++){
+			minX = Math.min(minX, state.getActiveStdX(i));
+			maxX = Math.max(maxX, state.getActiveStdX(i));
+			minY = Math.min(minY, state.getActiveStdY(i));
+			maxY = Math.max(maxY, state.getActiveStdY(i));
+		}
+		repaintCells(minX, minY, maxX, maxY);
+		if(state.getGhostDistance()>0){
+			repaintCells(minX, minY+state.getGhostDistance(), maxX, maxY+state.getGhostDistance());
+		}
+	}
+
+	/**
+	 * Requests a repaint of a rectangle of cells, given in standard coordinates. The outline
+	 * of a block is a pixel wider and taller than the block, so the pixel just beyond the
+	 * rectangle is included.
+	 */
+	private void repaintCells(int minX, int minY, int maxX, int maxY){
+		repaint(minX*Block.WIDTH, minY*Block.HEIGHT,
+				((maxX-minX+1)*Block.WIDTH) + 1, ((maxY-minY+1)*Block.HEIGHT) + 1);
+	}
+
+	/* (non-Javadoc)
+	 * Renders the latest snapshot. The renderer keeps the settled blocks off-screen and only
+	 * redraws them when they have changed, so the cost of a frame does not depend on how full
+	 * the board is.
+	 * @see javax.swing.JComponent#paintComponent(java.awt.Graphics)
+	 */
+	public void paintComponent(Graphics g){
+		GameState state = loop.getState();
+		if(state==null){
+			//nothing published yet
+			super.paintComponent(g);
+			return;
+		}
+		long start = GameMetrics.ENABLED ? System.nanoTime() : 0;
+		renderer.render(g, state, getGraphicsConfiguration());
+		if(GameMetrics.ENABLED){
+			GameMetrics.PAINT.recordSince(start);
+			GameMetrics.painted();
+		}
+		if(state!=lastPainted && state.getInputNanos()!=0){
+			//the first paint of moves made by key presses
+			GameEvents.inputPainted(state.getInputNanos());
+		}
+		lastPainted = state;
+	}
+}
@@ -0,0 +1,539 @@
+package tetris;
+
+import java.awt.Color;
+import java.awt.Graphics;
+
+
+/**
+ * Represents the shapes that form from a series of blocks. The layout of the blocks in each
+ * orientation of the shape is taken from its ShapeType; the shape itself only tracks its type,
+ * current orientation and the position of its frame on the board, and positions its Block
+ * objects from those.
+ * 
+ * The coordinates of the blocks are updated whenever the shape moves or rotates, and the bounding
+ * box and edge queries are answered from the orientation tables, so none of the queries rescans
+ * the blocks or allocates.
+ * 
+ * A shape can be reset to a new type and colour in place, reusing its Block objects, so that shapes
+ * can be recycled by a ShapePool rather than allocated for every spawn.
+ * 
+ * @see Block
+ * @see ShapeType
+ * @see ShapePool
+ * 
+ * @author emma
+ */
+public class ComplexShape {
+	
+	private ShapeType iType; //the type of the shape
+	private int iOrientation; //index of the current orientation in the ShapeType
+	private int iStdX; //standard x coordinate of the top-left of the shape's frame
+	private int iStdY; //standard y coordinate of the top-left of the shape's frame
+	private ValidColour iValidColour; //the ValidColour entry of the shape
+	private Color iColour; //the colour of the shape
+	private Block[] iBlocks; //the array of block objects that compose the shape
+	private boolean isActive; //
+	private int[][] iStdCoords = new int[4][2];//[x][0] = x-coord, [x][1] = y-coord where x corresponds to block index in iBlocks
+	private int[][] iCoords = new int [4][4];//same format as iStdCoords but contains the pixel coordinates instead
+	private Board iGhostBoard; //the board the landing position was found on, null once the shape moves sideways or rotates
+	private int iGhostBoardVersion; //the version of iGhostBoard the landing position was found on
+	private int iGhostStdY; //standard y coordinate the frame would land at
+	private final Block[] iLeftBlocks = new Block[4]; //view returned by getLeftBlocks()
+	private final Block[] iRightBlocks = new Block[4]; //view returned by getRightBlocks()
+	private final Block[] iBottomBlocks = new Block[4]; //view returned by getBottomBlocks()
+	private int iEdgeOrientation = -1; //the orientation the edge views were filled for
+	
+	/**
+	 * Default constructor. Randomly generates the colour and defines coordinates to be
+	 * at the top of the screen and horizontally center, in the first orientation of the type.
+	 * 
+	 * isActive is set to true by default since the general context of a Tetris game implies
+	 * that when wanting to initialise a new ComplexShape it will be the next active block.
+	 * 
+	 * @param type
+	 */
+	public ComplexShape(ShapeType type){
+		this(type, ValidColour.randomValidColour());
+	}
+	
+	/**
+	 * Creates a shape of the given type and colour at the top of the screen
+	 * 
+	 * @param type
+	 * @param colour
+	 */
+	public ComplexShape(ShapeType type, ValidColour colour){
+		iBlocks = new Block[4];
+		for(int i=0; i<4; i++){
+			iBlocks[i] = new Block(colour.getColour(), 0, 0, true, true);
+		}
+		reset(type, colour);
+	}
+	
+	/**
+	 * Turns the shape into a new active shape of the given type and colour at the top of the
+	 * screen, in the first orientation of the type, as if it had just been created. The Block
+	 * objects and coordinate arrays are reused.
+	 * 
+	 * @param type
+	 * @param colour
+	 */
+	public void reset(ShapeType type, ValidColour colour){
+		iType = type;
+		iOrientation = 0;
+		iStdX = type.getSpawnX();
+		iStdY = type.getSpawnY();
+		iValidColour = colour;
+		iColour = colour.getColour();
+		for(int i=0; i<4; i++){
+			iBlocks[i].setColour(iColour);
+		}
+		iGhostBoard = null;
+		iEdgeOrientation = -1;
+		defineBlocks();
+		setIsActive(true);
+	}
+	
+	/**
+	 * Clone constructor. The copy has Block objects of its own, so moving it does
+	 * not move the original.
+	 * 
+	 * @param toCopy
+	 */
+	public ComplexShape(ComplexShape toCopy){
+		this(toCopy.getType(), toCopy.getValidColour());
+		iOrientation = toCopy.getOrientation();
+		iStdX = toCopy.getStdX();
+		iStdY = toCopy.getStdY();
+		defineBlocks();
+		setIsActive(toCopy.isActive());
+	}
+	
+	/**
+	 * Accessor method for the array of Block objects that compose the shape
+	 * @return
+	 */
+	public Block[] getBlocks(){
+		return iBlocks;
+	}
+	
+	/**
+	 * Accessor method for the type of the shape
+	 * @return iType
+	 */
+	public ShapeType getType(){
+		return iType;
+	}
+	
+	/**
+	 * Accessor method for the index of the current orientation of the shape in its ShapeType
+	 * @return iOrientation
+	 */
+	public int getOrientation(){
+		return iOrientation;
+	}
+	
+	/**
+	 * Returns the standard x coordinate of the top-left of the shape's frame
+	 * @return iStdX
+	 */
+	public int getStdX(){
+		return iStdX;
+	}
+	
+	/**
+	 * Returns the standard y coordinate of the top-left of the shape's frame
+	 * @return iStdY
+	 */
+	public int getStdY(){
+		return iStdY;
+	}
+	
+	/**
+	 * Set and update the standard coords based on the location of the Block objects. Called
+	 * whenever the shape moves or rotates.
+	 */
+	public void setStdCoords(){
+		for(int i=0; i<4; i++){
+			iStdCoords[i][0] = iBlocks[i].getStdX();
+			iStdCoords[i][1] = iBlocks[i].getStdY();
+		}
+	}
+	
+	/**
+	 * Set and update the normal coords based on the location of the Block objects. Called
+	 * whenever the shape moves or rotates.
+	 */
+	public void setCoords(){
+		for(int i=0; i<4; i++){
+			iCoords[i][0] = iBlocks[i].getX();
+			iCoords[i][1] = iBlocks[i].getY();
+		}
+	}
+	
+	/**
+	 * Get the standard coords array. The array is kept up to date as the shape moves and
+	 * must not be modified.
+	 * @return iStdCoords
+	 */
+	public int[][] getStdCoords(){
+		return iStdCoords;
+	}
+	
+	/**
+	 * Get the coords array. The array is kept up to date as the shape moves and must not
+	 * be modified.
+	 * @return iCoords
+	 */
+	public int[][] getCoords(){
+		return iCoords;
+	}
+	
+	/**
+	 * Accessor method for colour of shape
+	 * @return iColour
+	 */
+	public Color getColour(){
+		return iColour;
+	}
+	
+	/**
+	 * Accessor method for the ValidColour entry of the shape
+	 * @return iValidColour
+	 */
+	public ValidColour getValidColour(){
+		return iValidColour;
+	}
+	
+	/**
+	 * Define the positioning of the blocks in the block array based on the type,
+	 * orientation and position of the shape
+	 */
+	private void defineBlocks(){
+		ShapeType.Orientation orientation = iType.getOrientation(iOrientation);
+		for(int i=0; i<4; i++){
+			iBlocks[i].setX((iStdX+orientation.getCellX(i))*Block.WIDTH);
+			iBlocks[i].setY((iStdY+orientation.getCellY(i))*Block.HEIGHT);
+		}
+		setStdCoords();
+		setCoords();
+	}
+	
+	/**
+	 * Rotate the shape to its next orientation
+	 */
+	public void rotateBlocks(){
+		iOrientation = iType.nextOrientation(iOrientation);
+		iGhostBoard = null;
+		defineBlocks();
+	}
+	
+	/**
+	 * Check if a rotation can be performed based on the location of the shape on the board
+	 * 
+	 * @param board
+	 */
+	public boolean isValidRotation(Board board){
+		return board.fits(iType.getOrientation(iType.nextOrientation(iOrientation)), iStdX, iStdY);
+	}
+	
+	/**
+	 * Debugging tool. Prints the coords of all the blocks of the complex shape.
+	 */
+	public void printCoords(){
+		System.out.println(iType + " orientation " + iOrientation + ": \n");
+		for(int i=0; i<4; i++){
+			iBlocks[i].printCoords();
+		}
+	}
+	
+	/**
+	 * Moves the entire shape to the left by 1 place
+	 */
+	public void moveLeft(){
+		iStdX--;
+		iGhostBoard = null;
+		defineBlocks();
+	}
+	
+	/**
+	 * Moves the entire shape to the right by 1 place
+	 */
+	public void moveRight(){
+		iStdX++;
+		iGhostBoard = null;
+		defineBlocks();
+	}
+	
+	/**
+	 * Places the shape in the given orientation with the top-left of its frame at the given
+	 * standard coordinates, e.g. when a saved game is loaded
+	 * 
+	 * @param orientation index of the orientation in the ShapeType
+	 * @param stdX
+	 * @param stdY
+	 */
+	public void setPosition(int orientation, int stdX, int stdY){
+		if(orientation<0 || orientation>=iType.getOrientationCount()){
+			throw new IllegalArgumentException(iType + " has no orientation " + orientation);
+		}
+		iOrientation = orientation;
+		iStdX = stdX;
+		iStdY = stdY;
+		iGhostBoard = null;
+		defineBlocks();
+	}
+	
+	/**
+	 * Moves the entire shape down by 1 place
+	 */
+	public void moveDown(){
+		iStdY++;
+		defineBlocks();
+	}
+	
+	/**
+	 * Moves the entire shape down by the specified number of places
+	 * @param rows
+	 */
+	public void moveDown(int rows){
+		iStdY+=rows;
+		defineBlocks();
+	}
+	
+	/**
+	 * Returns how many places the shape can move down before it lands on the board
+	 * @param board
+	 * @see Board#dropDistance(ShapeType.Orientation, int, int)
+	 */
+	public int getDropDistance(Board board){
+		return board.dropDistance(iType.getOrientation(iOrientation), iStdX, iStdY);
+	}
+	
+	/**
+	 * Returns the standard y coordinate the top-left of the shape's frame would land at if it
+	 * were dropped, i.e. the position of its ghost. The landing position is cached, and only
+	 * found again once the shape has moved sideways or rotated or the board has changed -
+	 * moving down does not change where the shape lands.
+	 * 
+	 * @param board
+	 */
+	public int getGhostStdY(Board board){
+		if(iGhostBoard!=board || iGhostBoardVersion!=board.getVersion()){
+			iGhostStdY = iStdY + getDropDistance(board);
+			iGhostBoard = board;
+			iGhostBoardVersion = board.getVersion();
+		}
+		return iGhostStdY;
+	}
+	
+	/**
+	 * Checks whether a downward move can be performed on the canvas
+	 * without any collisions or exiting the boundaries of the canvas
+	 * 
+	 * @param board
+	 */
+	public boolean isValidDownwardMove(Board board){
+		return isValidMove(board, 0, 1);
+	}
+	
+	/**
+	 *	Checks whether a move to the right can be performed on the canvas
+	 * without any collisions or exiting the boundaries of the canvas
+	 * @param board
+	 */
+	public boolean isValidRightMove(Board board){
+		return isValidMove(board, 1, 0);
+	}
+	
+	/**
+	 *	Checks whether a move to the left can be performed on the canvas
+	 * without any collisions or exiting the boundaries of the canvas
+	 * @param board
+	 */
+	public boolean isValidLeftMove(Board board){
+		return isValidMove(board, -1, 0);
+	}
+	
+	/**
+	 * Checks whether the shape could be moved by the specified number of places without
+	 * any of its blocks landing on an occupied cell of the board or leaving the canvas.
+	 * 
+	 * @param board
+	 * @param dx places to move to the right (negative for left)
+	 * @param dy places to move down
+	 */
+	public boolean isValidMove(Board board, int dx, int dy){
+		return board.fits(iType.getOrientation(iOrientation), iStdX+dx, iStdY+dy);
+	}
+	
+	/**
+	 * Returns the index of the block with the greatest y-coordinate
+	 * 
+	 * @return indexValue
+	 */
+	public int getMaxYBlockIndex(){
+		return iType.getOrientation(iOrientation).getMaxYBlock();
+	}
+	
+	/**
+	 * Returns the index of the block with the greatest (right-most) x-coordinate
+	 * @return indexValue
+	 */
+	public int getMaxXBlockIndex(){
+		return iType.getOrientation(iOrientation).getMaxXBlock();
+	}
+	
+	/**
+	 * Returns the standard y coord of the block with the greatest y-coordinate
+	 * @return max
+	 */
+	public int getMaxStdYCoord(){
+		return iStdY + iType.getOrientation(iOrientation).getMaxY();
+	}
+	
+	/**
+	 * Returns the index of the block with the smallest (left-most) x-coordinate
+	 * @return index
+	 */
+	public int getMinXBlockIndex(){
+		return iType.getOrientation(iOrientation).getMinXBlock();
+	}
+	
+	/**
+	 * Returns the standard coordinate of the block with the smallest Y coordinate
+	 * @return min
+	 */
+	public int getMinStdYCoord(){
+		return iStdY + iType.getOrientation(iOrientation).getMinY();
+	}
+	
+	/**
+	 * Returns the standard coordinate of the block with the largest X coordinate
+	 * @return max
+	 */
+	public int getMaxStdXCoord(){
+		return iStdX + iType.getOrientation(iOrientation).getMaxX();
+	}
+	
+	/**
+	 * Returns the standard coordinate of the block with the smallest X coordinate
+	 * @return min
+	 */
+	public int getMinStdXCoord(){
+		return iStdX + iType.getOrientation(iOrientation).getMinX();
+	}
+	
+	/**
+	 * Returns an array of all blocks that are left-most. Entries for block which are not
+	 * left-most are null. The array is a view that is reused between calls and changes as
+	 * the shape rotates, so it must not be modified.
+	 * @return iLeftBlocks
+	 */
+	public Block[] getLeftBlocks(){
+		updateEdgeBlocks();
+		return iLeftBlocks;
+	}
+	
+	/**
+	 * Returns an array of all blocks that are right-most. Entries for block which are not
+	 * right-most are null. The array is a view that is reused between calls and changes as
+	 * the shape rotates, so it must not be modified.
+	 * @return iRightBlocks
+	 */
+	public Block[] getRightBlocks(){
+		updateEdgeBlocks();
+		return iRightBlocks;
+	}
+	
+	/**
+	 * Returns an array of all blocks that are downward-most. Entries for block which are not
+	 * downward-most are null. The array is a view that is reused between calls and changes as
+	 * the shape rotates, so it must not be modified.
+	 * @return iBottomBlocks
+	 */
+	public Block[] getBottomBlocks(){
+		updateEdgeBlocks();
+		return iBottomBlocks;
+	}
+	
+	/**
+	 * Fills the edge views for the current orientation, if they were filled for another one
+	 */
+	private void updateEdgeBlocks(){
+		if(iEdgeOrientation==iOrientation){
+			return;
+		}
+		ShapeType.Orientation orientation = iType.getOrientation(iOrientation);
+		for(int i=0; i<4; i++){
+			iLeftBlocks[i] = orientation.isLeftBlock(i) ? iBlocks[i] : null;
+			iRightBlocks[i] = orientation.isRightBlock(i) ? iBlocks[i] : null;
+			iBottomBlocks[i] = orientation.isBottomBlock(i) ? iBlocks[i] : null;
+		}
+		iEdgeOrientation = iOrientation;
+	}
+	
+	/**
+	 * Get the maximum y-coordinate of the shape in non-standardised coords(pixel location)
+	 */
+	public int getMaxYCoord(){
+		return getMaxStdYCoord()*Block.HEIGHT;
+	}
+	/**
+	 * Get the minimum y-coordinate of the shape in non-standardised coords(pixel location)
+	 */
+	public  int getMinYCoord(){
+		return getMinStdYCoord()*Block.HEIGHT;
+	}
+	/**
+	 * Get the maximum x-coordinate of the shape in non-standardised coords(pixel location)
+	 */
+	public int getMaxXCoord(){
+		return getMaxStdXCoord()*Block.WIDTH;
+	}
+	
+	/**
+	 * Get the minimum x-coordinate of the shape in non-standardised coords(pixel location_
+	 */
+	public int getMinXCoord(){
+		return getMinStdXCoord()*Block.WIDTH;
+	}
+	
+	/**
+	 * Gets the block at a specific index in the blocks array
+	 * @param index
+	 * @return iBlocks[index]
+	 */
+	public Block getBlockAtIndex(int index){
+		return iBlocks[index];
+	}
+	
+	/**
+	 * Mutator method for isActive boolean - determines whether shape is moving or not
+	 * @param isActive
+	 */
+	public void setIsActive(boolean isActive){
+		for(int i=0; i<4; i++){
+			iBlocks[i].setIsActive(isActive);
+		}
+		this.isActive=isActive;
+	}
+	
+	/**
+	 * Accessor method for isActive boolean - specifies whether shape is moving or not
+	 * @return
+	 */
+	public boolean isActive(){
+		return isActive;
+	}
+	
+	/**
+	 * Logic for painting shape.
+	 * @param g
+	 */
+	public void paintShape(Graphics g){
+		for(int i=0; i<4; i++){
+			iBlocks[i].paintSquare(g);
+		}
+	}
+}
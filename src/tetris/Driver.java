@@ -0,0 +1,147 @@
+package tetris;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+
+
+/**
+ * Driver class - creates a GameEngine played in a MainWindow object and starts the GameLoop
+ * that moves the active block.
+ * 
+ * Setting the system property tetris.fps (e.g. -Dtetris.fps=60) renders the game actively at
+ * no more than that many frames per second instead of painting it passively, and setting
+ * tetris.autoplay=true leaves the game to the AutoPlayer as a demo.
+ * 
+ * Setting tetris.record to a file name records the game to that file, and setting tetris.replay
+ * to the name of a recording plays the recorded game again in real time. Setting tetris.load to
+ * the name of a saved game carries on playing it.
+ * 
+ * Setting tetris.metrics=true gathers GameMetrics and registers them with JMX, and setting
+ * tetris.metrics.log to a number of seconds also prints them that often.
+ * 
+ * @author emma
+ * @see ActiveCanvas
+ * @see AutoPlayer
+ * @see ReplayRecorder
+ * @see Replay
+ * @see GameSnapshot
+ * @see GameMetrics
+ */
+public class Driver {
+	private static GameEngine engine;//the game logic
+	private static MainWindow window;//the main window of the game
+	private static GameLoop loop;//moves the active block in real time
+	public static void main(String args[]) throws InterruptedException, IOException{
+		if(GameMetrics.ENABLED){
+			GameMetrics.register();//read through JMX
+			long period = Long.getLong("tetris.metrics.log", 0);
+			if(period>0){
+				GameMetrics.startLogging(period);
+			}
+		}
+		String recordFile = System.getProperty("tetris.record");
+		String replayFile = System.getProperty("tetris.replay");
+		String loadFile = System.getProperty("tetris.load");
+		Replay replay = null;
+		ReplayRecorder recorder = null;
+		if(loadFile!=null){
+			engine = GameSnapshot.load(Paths.get(loadFile));//the saved game
+		}
+		else if(replayFile!=null){
+			replay = Replay.read(Paths.get(replayFile));
+			engine = replay.createEngine();//the recorded game
+		}
+		else if(recordFile!=null){
+			long seed = System.nanoTime();
+			engine = new GameEngine(seed);//the game, with a seed so that it can be replayed
+			recorder = new ReplayRecorder(Paths.get(recordFile), seed);
+		}
+		else{
+			engine = new GameEngine();//the game
+		}
+		loop = new GameLoop(engine, new MoveActiveBlock());//the active block loop
+		window = new MainWindow(loop, Integer.getInteger("tetris.fps", 0));//the main window
+		if(replay!=null){
+			loop.setAutoPlayer(replay);//play the recorded moves
+		}
+		else if(Boolean.getBoolean("tetris.autoplay")){
+			loop.setAutoPlayer(new AutoPlayer());//play a demo
+		}
+		if(recorder!=null){
+			loop.setRecorder(recorder);
+			Runtime.getRuntime().addShutdownHook(new SaveRecording(recorder));//keep the moves made if the game is quit
+		}
+		
+		loop.start();//starting the loop
+	}
+	
+	/**
+	 * Stops the loop and closes the recording when the program exits before the game is over
+	 * @author emma
+	 *
+	 */
+	private static class SaveRecording extends Thread {
+		private final ReplayRecorder iRecorder;
+		
+		SaveRecording(ReplayRecorder recorder){
+			iRecorder = recorder;
+		}
+		
+		public void run(){
+			try{
+				loop.stop();
+				loop.awaitTermination(1000);
+				iRecorder.close(engine.getTickCount());//does nothing if the game over already ended it
+			}
+			catch(IOException e){
+				e.printStackTrace();
+			}
+			catch(InterruptedException e){
+				e.printStackTrace();
+			}
+		}
+	}
+	
+	/**
+	 * Updates the window as the active block moves and presents the game over window,
+	 * closing it again when a new game is started
+	 * @author emma
+	 *
+	 */
+	private static class MoveActiveBlock implements GameLoop.Listener {
+		private JFrame gameOverWindow;//the game over window, only used on the event dispatch thread
+		
+
+		public void stateChanged(GameState state){
+			window.refresh(state);//repaint and check if score has changed and if so update
+		}
+		
+		public void gameOver(){
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run(){
+					gameOverWindow = new JFrame("Game Over");//present game over window
+					gameOverWindow.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+					gameOverWindow.setVisible(true);
+					gameOverWindow.setSize(200, 100);
+					gameOverWindow.add(new JLabel("Sorry! Game over!", JLabel.CENTER));
+				}
+			});
+		}
+		
+		public void newGame(){
+			window.newGame();//reset the score and level
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run(){
+					if(gameOverWindow!=null){
+						gameOverWindow.dispose();
+						gameOverWindow = null;
+					}
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,226 @@
+package tetris;
+
+import java.util.Arrays;
+
+
+/**
+ * Bounded cache of the scores the AutoPlayer has worked out, keyed by a 64 bit Zobrist key of
+ * what was scored (the hash of the board combined with keys for the shapes still to be placed).
+ * The same board is reached by different sequences of placements, and the boards searched for
+ * one move are searched again for the next, so a score found once can be reused many times.
+ *
+ * Safe to use from several threads at once. The entries are spread over a number of stripes,
+ * each guarded by its own lock, so threads searching in parallel rarely wait for each other.
+ * Each stripe is a set associative table held in primitive arrays, so lookups allocate nothing:
+ * a key can only be stored in one of the WAYS slots of its set, and when they are all taken the
+ * least recently used of them is evicted. Hits and misses are counted by each stripe under its
+ * own lock, for tuning.
+ *
+ * @author emma
+ * @see AutoPlayer
+ * @see Board#getHash()
+ */
+public class EvaluationCache {
+
+	private static final int STRIPE_BITS = 4; //log2 of the number of stripes
+	private static final int STRIPES = 1<<STRIPE_BITS; //number of independently locked parts
+	private static final int WAYS = 4; //slots a key can be stored in
+	private static final long MIX = 0x9E3779B97F4A7C15L; //spreads the bits of a key over the stripes and sets
+
+	private final Stripe[] iStripes = new Stripe[STRIPES];
+
+	/**
+	 * Creates a cache holding up to roughly capacity scores, rounded down to a power of 2
+	 * @param capacity
+	 */
+	public EvaluationCache(int capacity){
+		if(capacity<STRIPES){
+			throw new IllegalArgumentException("The capacity must be at least " + STRIPES + ", was " + capacity);
+		}
+		int sets = Math.max(1, Integer.highestOneBit(capacity/STRIPES/WAYS));
+		for(int i=0; i<STRIPES; i++){
+			iStripes[i] = new Stripe(sets);
+		}
+	}
+
+	/**
+	 * Returns the score cached for a key, or NaN if there is none
+	 * @param key
+	 */
+	public double get(long key){
+		long mixed = key*MIX;
+		Stripe stripe = iStripes[(int)(mixed>>>(64-STRIPE_BITS))];
+		synchronized(stripe){
+			return stripe.get(key, (int)(mixed>>>32));
+		}
+	}
+
+	/**
+	 * Caches the score of a key, evicting the least recently used score of its set if full
+	 * @param key
+	 * @param score
+	 */
+	public void put(long key, double score){
+		long mixed = key*MIX;
+		Stripe stripe = iStripes[(int)(mixed>>>(64-STRIPE_BITS))];
+		synchronized(stripe){
+			stripe.put(key, (int)(mixed>>>32), score);
+		}
+	}
+
+	/**
+	 * Removes every cached score and resets the counters
+	 */
+	public void clear(){
+		for(int i=0; i<STRIPES; i++){
+			synchronized(iStripes[i]){
+				iStripes[i].clear();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of scores cached
+	 */
+	public int size(){
+		int size = 0;
+		for(int i=0; i<STRIPES; i++){
+			synchronized(iStripes[i]){
+				size+=iStripes[i].iSize;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the number of lookups that found a score
+	 */
+	public long getHits(){
+		long hits = 0;
+		for(int i=0; i<STRIPES; i++){
+			synchronized(iStripes[i]){
+				hits+=iStripes[i].iHits;
+			}
+		}
+		return hits;
+	}
+
+	/**
+	 * Returns the number of lookups that did not find a score
+	 */
+	public long getMisses(){
+		long misses = 0;
+		for(int i=0; i<STRIPES; i++){
+			synchronized(iStripes[i]){
+				misses+=iStripes[i].iMisses;
+			}
+		}
+		return misses;
+	}
+
+	/**
+	 * Returns the fraction of lookups that found a score, 0 if there have been none
+	 */
+	public double getHitRate(){
+		long hits = getHits();
+		long lookups = hits + getMisses();
+		return lookups==0 ? 0 : (double)hits/lookups;
+	}
+
+	@Override
+	public String toString(){
+		return "Cached: " + size() + " Hits: " + getHits() + " Misses: " + getMisses() + " Hit rate: " + getHitRate();
+	}
+
+	/**
+	 * One part of the cache - sets of WAYS slots, a key being stored in the set picked by its
+	 * mixed bits. The slots of set s are WAYS*s to WAYS*s + WAYS-1 of the arrays. Every lookup
+	 * stamps the slot it finds with the stripe's clock, so the slot with the lowest stamp in a set
+	 * is the least recently used and a stamp of 0 marks an empty slot. Guarded by its own lock.
+	 */
+	private static class Stripe {
+
+		private final long[] iKeys; //the key stored in each slot
+		private final double[] iScores; //the score stored in each slot
+		private final long[] iStamps; //when each slot was last used, 0 if it is empty
+		private final int iSetMask; //the number of sets - 1, a power of 2 - 1
+		private long iClock = 0; //counts up on every lookup
+		private int iSize = 0; //the number of slots holding a score
+		private long iHits = 0; //lookups that found a score
+		private long iMisses = 0; //lookups that did not
+
+		Stripe(int sets){
+			iKeys = new long[sets*WAYS];
+			iScores = new double[sets*WAYS];
+			iStamps = new long[sets*WAYS];
+			iSetMask = sets-1;
+		}
+
+		/**
+		 * Returns the score stored for a key, or NaN if there is none
+		 * @param key
+		 * @param mixed the mixed bits of the key that pick its set
+		 */
+		double get(long key, int mixed){
+			int slot = find(key, (mixed & iSetMask)*WAYS);
+			if(slot<0){
+				iMisses++;
+				return Double.NaN;
+			}
+			iHits++;
+			iStamps[slot] = ++iClock;
+			return iScores[slot];
+		}
+
+		/**
+		 * Stores the score of a key, in the slot already holding the key, or else an empty slot
+		 * or the least recently used slot of its set
+		 * @param key
+		 * @param mixed the mixed bits of the key that pick its set
+		 * @param score
+		 */
+		void put(long key, int mixed, double score){
+			int first = (mixed & iSetMask)*WAYS;
+			int slot = find(key, first);
+			if(slot<0){
+				slot = first;
+				for(int i=first+1; i<first+WAYS; i++){
+					if(iStamps[i]<iStamps[slot]){
+						slot = i;
+					}
+				}
+				if(iStamps[slot]==0){
+					iSize++;
+				}
+				iKeys[slot] = key;
+			}
+			iScores[slot] = score;
+			iStamps[slot] = ++iClock;
+		}
+
+		/**
+		 * Returns the slot of the set starting at first that holds a key, or -1 if none does
+		 * @param key
+		 * @param first
+		 */
+		private int find(long key, int first){
+			for(int i=first; i<first+WAYS; i++){
+				if(iKeys[i]==key && iStamps[i]!=0){
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Empties the stripe and resets its counters
+		 */
+		void clear(){
+			Arrays.fill(iStamps, 0);
+			iClock = 0;
+			iSize = 0;
+			iHits = 0;
+			iMisses = 0;
+		}
+	}
+}
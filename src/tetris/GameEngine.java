@@ -0,0 +1,465 @@
+package tetris;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+
+/**
+ * Contains all of the game logic - the board of settled blocks, the active shape, the
+ * line count, score and level - without any dependency on Swing, so that a game can be
+ * played without a display (e.g. with -Djava.awt.headless=true). The Canvas renders the
+ * engine and translates key presses into calls on it, the Driver advances it with step().
+ *
+ * The state of a game can be written to a buffer in a fixed number of bytes and a game created
+ * again from it, which is how games are saved.
+ *
+ * Shapes are recycled through a ShapePool - once the active shape has settled onto the board it is
+ * reset as the next shape - so spawning a shape does not allocate.
+ *
+ * @author emma
+ * @see Canvas
+ * @see GameState
+ * @see Driver
+ */
+public class GameEngine {
+
+	public static final int MAX_LEVEL = 12; //the level after which the level no longer increases
+	public static final int POINTS_PER_LINE = 10; //the score awarded per line cleared
+	public static final int POINTS_PER_LEVEL = 50; //the score needed to advance a level
+	public static final int SNAPSHOT_BYTES = Board.SNAPSHOT_BYTES + 3 + (6*4) + 8 + PieceRandomizer.SNAPSHOT_BYTES; //bytes written by writeTo(ByteBuffer)
+
+	private final Board iBoard; //the blocks that have settled
+	private ComplexShape iActiveBlock; //first shape will always be a line
+	private int iLineCount = 0; //the number of lines cleared
+	private int iScore = 0; //the current score
+	private int iLevel = 0; //the current level
+	private boolean iGameOver = false; //whether the game is over
+	private int iPieceCount = 1; //the number of shapes that have been active, including the current one
+	private long iTickCount = 0; //the number of gravity ticks the game has been stepped
+	private final PieceRandomizer iRandomizer; //deals the type and colour of each new shape
+	private final ShapePool iShapePool = new ShapePool(); //recycles the shapes once they have settled
+
+	/**
+	 * Creates a new game with an unseeded random choice of shapes
+	 */
+	public GameEngine(){
+		this(new SplittableRandom());
+	}
+
+	/**
+	 * Creates a new game whose shapes are dealt using a generator of the given seed
+	 *
+	 * @param seed
+	 */
+	public GameEngine(long seed){
+		this(new SplittableRandom(seed));
+	}
+
+	/**
+	 * Creates a new game whose shapes are dealt using the given generator, which the game then
+	 * owns. Two games created with generators of the same seed and given the same moves will
+	 * play out identically.
+	 *
+	 * @param random
+	 * @see PieceRandomizer
+	 */
+	public GameEngine(SplittableRandom random){
+		this(new Board(), random);
+	}
+
+	/**
+	 * Creates a game starting from an already populated board. Used by the benchmarks
+	 * to measure the engine on boards of realistic fill levels.
+	 *
+	 * @param board
+	 * @param random
+	 */
+	GameEngine(Board board, SplittableRandom random){
+		iBoard = board;
+		iRandomizer = new PieceRandomizer(random);
+		iActiveBlock = iShapePool.acquire(ShapeType.LINE, iRandomizer.nextColour());
+	}
+
+	/**
+	 * Starts a new game in place, emptying the board and resetting the line count, score and
+	 * level, without creating a new board. The game then plays out as a new GameEngine created with
+	 * the given generator would.
+	 *
+	 * @param random
+	 */
+	public void reset(SplittableRandom random){
+		iBoard.clear();
+		iRandomizer.reset(random);
+		iShapePool.release(iActiveBlock);
+		iActiveBlock = iShapePool.acquire(ShapeType.LINE, iRandomizer.nextColour());
+		iLineCount = 0;
+		iScore = 0;
+		iLevel = 0;
+		iGameOver = false;
+		iPieceCount = 1;
+		iTickCount = 0;
+	}
+
+	/**
+	 * Creates a game from a state written by writeTo(ByteBuffer). The queued shapes carry on as
+	 * they were, after which shapes are dealt using the given generator.
+	 *
+	 * @param buffer
+	 * @param random
+	 * @throws IllegalArgumentException if the buffer does not hold a valid game
+	 * @see GameSnapshot
+	 */
+	public static GameEngine readFrom(ByteBuffer buffer, SplittableRandom random){
+		GameEngine engine = new GameEngine(random);
+		engine.iBoard.readFrom(buffer);
+		int type = buffer.get();
+		int orientation = buffer.get();
+		int colour = buffer.get();
+		if(type<0 || type>=ShapeType.count() || colour<0 || colour>=ValidColour.count()){
+			throw new IllegalArgumentException("Unknown active shape " + type + " in colour " + colour);
+		}
+		engine.iShapePool.release(engine.iActiveBlock);
+		engine.iActiveBlock = engine.iShapePool.acquire(ShapeType.fromIndex(type), ValidColour.fromIndex(colour));
+		int stdX = buffer.getInt();
+		int stdY = buffer.getInt();
+		if(orientation<0 || orientation>=ShapeType.fromIndex(type).getOrientationCount()){
+			throw new IllegalArgumentException(ShapeType.fromIndex(type) + " has no orientation " + orientation);
+		}
+		ShapeType.Orientation cells = ShapeType.fromIndex(type).getOrientation(orientation);
+		if(stdX+cells.getMinX()<0 || stdX+cells.getMaxX()>=Board.COLUMNS || stdY+cells.getMaxY()<0 || stdY+cells.getMaxY()>=Board.ROWS){
+			throw new IllegalArgumentException("The active shape at " + stdX + "," + stdY + " is outside the board");
+		}
+		engine.iActiveBlock.setPosition(orientation, stdX, stdY);
+		if(!engine.iBoard.fits(cells, stdX, stdY)){
+			throw new IllegalArgumentException("The active shape at " + stdX + "," + stdY + " does not fit on the board");
+		}
+		engine.iLineCount = buffer.getInt();
+		engine.iScore = buffer.getInt();
+		engine.iLevel = buffer.getInt();
+		engine.iPieceCount = buffer.getInt();
+		engine.iTickCount = buffer.getLong();
+		if(engine.iLineCount<0 || engine.iScore<0 || engine.iLevel<0 || engine.iPieceCount<0 || engine.iTickCount<0){
+			throw new IllegalArgumentException("Negative line count, score, level, piece count or tick count");
+		}
+		engine.iRandomizer.readFrom(buffer);
+		return engine;
+	}
+
+	/**
+	 * Writes the state of the game to a buffer, in SNAPSHOT_BYTES bytes - the board, the type,
+	 * orientation, colour and position of the active shape, the line count, score, level, piece
+	 * count and tick count, and the queued shapes
+	 *
+	 * @param buffer
+	 */
+	public void writeTo(ByteBuffer buffer){
+		iBoard.writeTo(buffer);
+		buffer.put((byte)iActiveBlock.getType().ordinal());
+		buffer.put((byte)iActiveBlock.getOrientation());
+		buffer.put((byte)iActiveBlock.getValidColour().getIndex());
+		buffer.putInt(iActiveBlock.getStdX());
+		buffer.putInt(iActiveBlock.getStdY());
+		buffer.putInt(iLineCount);
+		buffer.putInt(iScore);
+		buffer.putInt(iLevel);
+		buffer.putInt(iPieceCount);
+		buffer.putLong(iTickCount);
+		iRandomizer.writeTo(buffer);
+	}
+
+	/**
+	 * Advances the game by one gravity tick - settles the active shape and creates a new one
+	 * if it can no longer move, clears any full lines and moves the active shape down.
+	 *
+	 * @return false if the game is over
+	 */
+	public boolean step(){
+		if(iGameOver){
+			return false;
+		}
+		iTickCount++;
+		long start = GameMetrics.ENABLED ? System.nanoTime() : 0;
+		boolean valid = checkActiveBlockValid();
+		if(GameMetrics.ENABLED){
+			GameMetrics.SETTLE_CHECK.recordSince(start);
+		}
+		if(!valid){
+			iGameOver = true;
+			return false;
+		}
+		moveActiveBlock();
+		return true;
+	}
+
+	/**
+	 * Move the activeBlock down one block, after checking for full lines.
+	 *
+	 * @return true if the activeBlock moved
+	 */
+	public boolean moveActiveBlock(){
+		detectFullLine();//check if there is a full line
+		return moveDown();
+	}
+
+	/**
+	 * Removes any full lines, updating the line count, score and level
+	 *
+	 * @return the number of lines cleared
+	 */
+	public int detectFullLine(){
+		long start = GameMetrics.ENABLED ? System.nanoTime() : 0;
+		GameEvents.LinesCleared event = GameEvents.beginLinesCleared();
+		int linesCleared = iBoard.clearFullLines();
+		if(linesCleared>0){
+			iLineCount+=linesCleared;
+			iScore = iLineCount*POINTS_PER_LINE;
+			iLevel = levelForScore(iLevel, iScore);
+			GameEvents.linesCleared(event, linesCleared, iLineCount);
+		}
+		if(GameMetrics.ENABLED){
+			GameMetrics.LINE_CLEAR.recordSince(start);
+			GameMetrics.linesCleared(linesCleared);
+		}
+		return linesCleared;
+	}
+
+	/**
+	 * Checking to see whether the activeBlock can continue to be 'active'. If it is
+	 * no longer a valid activeBlock it will set in a fixed position and a new activeBlock
+	 * will be generated. Such would be the case if the activeBlock had reached the bottom of
+	 * the canvas.
+	 *
+	 * Returns true if it remains a valid activeBlock, false if the game is over
+	 */
+	public boolean checkActiveBlockValid(){
+		if(!iActiveBlock.isValidDownwardMove(iBoard)){
+			//if a valid downward move cannot be performed then it is no longer valid as an activeBlock
+			if(iActiveBlock.getMinStdYCoord()<1){
+				return false;
+			}
+			//if we have hit the last row it can no longer be a valid active block
+			iActiveBlock.setIsActive(false);
+			//deactivate
+			int[][] stdCoords = iActiveBlock.getStdCoords();
+			for(int i=0; i<4; i++){
+				iBoard.setBlock(stdCoords[i][0], stdCoords[i][1], iActiveBlock.getValidColour());
+			}
+			//place on the board
+			GameEvents.pieceLocked(iActiveBlock);
+			iShapePool.release(iActiveBlock);
+			iActiveBlock = createRandomShape();
+			iPieceCount++;
+			GameEvents.pieceSpawned(iActiveBlock, iPieceCount);
+			//create new active block
+			if(!iActiveBlock.isValidDownwardMove(iBoard)){
+				if(iActiveBlock.getMinStdYCoord()<1){
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Spawns a ComplexShape of the next type dealt by the randomizer, in a random colour,
+	 * from the pool
+	 */
+	private ComplexShape createRandomShape(){
+		if(GameMetrics.ENABLED){
+			GameMetrics.pieceSpawned();
+		}
+		return iShapePool.acquire(iRandomizer.next(), iRandomizer.nextColour());
+	}
+
+	/**
+	 * Moves the activeBlock to the left if the move is valid
+	 * @return true if the activeBlock moved
+	 */
+	public boolean moveLeft(){
+		if(!iGameOver && iActiveBlock.isValidLeftMove(iBoard)){
+			iActiveBlock.moveLeft();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Moves the activeBlock to the right if the move is valid
+	 * @return true if the activeBlock moved
+	 */
+	public boolean moveRight(){
+		if(!iGameOver && iActiveBlock.isValidRightMove(iBoard)){
+			iActiveBlock.moveRight();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Moves the activeBlock down if the move is valid
+	 * @return true if the activeBlock moved
+	 */
+	public boolean moveDown(){
+		if(!iGameOver && iActiveBlock.isValidDownwardMove(iBoard)){
+			iActiveBlock.moveDown();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Rotates the activeBlock if the rotation is valid
+	 * @return true if the activeBlock rotated
+	 */
+	public boolean rotate(){
+		if(!iGameOver && iActiveBlock.isValidRotation(iBoard)){
+			iActiveBlock.rotateBlocks();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Moves the activeBlock straight down as far as it will go, in a single move
+	 * @return the number of places the activeBlock moved down
+	 */
+	public int hardDrop(){
+		if(iGameOver){
+			return 0;
+		}
+		int rowsDropped = iActiveBlock.getDropDistance(iBoard);
+		if(rowsDropped>0){
+			iActiveBlock.moveDown(rowsDropped);
+		}
+		return rowsDropped;
+	}
+
+	/**
+	 * Returns how many rows below the activeBlock its ghost is, i.e. how far it would move if
+	 * it were hard dropped
+	 * @see ComplexShape#getGhostStdY(Board)
+	 */
+	public int getGhostDistance(){
+		return iActiveBlock.getGhostStdY(iBoard) - iActiveBlock.getStdY();
+	}
+
+	/**
+	 * Returns an immutable snapshot of the current state of the game
+	 * @return state
+	 */
+	public GameState getState(){
+		return new GameState(this);
+	}
+
+	/**
+	 * Returns the level reached for a score, following the rule that the level is derived
+	 * from the score until the maximum level has been passed.
+	 *
+	 * @param currentLevel
+	 * @param score
+	 * @return level
+	 */
+	public static int levelForScore(int currentLevel, int score){
+		if(currentLevel<=MAX_LEVEL){
+			return score/POINTS_PER_LEVEL;
+		}
+		return currentLevel;
+	}
+
+	/**
+	 * Returns the board of settled blocks
+	 * @return iBoard
+	 */
+	public Board getBoard(){
+		return iBoard;
+	}
+
+	/**
+	 * Returns the activeBlock. The shape is recycled as a later shape once it has settled, so it
+	 * should not be kept beyond the current move.
+	 * @return iActiveBlock
+	 */
+	public ComplexShape getActiveBlock(){
+		return iActiveBlock;
+	}
+
+	/**
+	 * Returns the type of the shape that will follow the activeBlock
+	 */
+	public ShapeType getNextType(){
+		return iRandomizer.peek(0);
+	}
+
+	/**
+	 * Returns the randomizer dealing the shapes of the game
+	 * @return iRandomizer
+	 */
+	public PieceRandomizer getRandomizer(){
+		return iRandomizer;
+	}
+
+	/**
+	 * Returns the pool the shapes of the game are recycled through
+	 * @return iShapePool
+	 */
+	public ShapePool getShapePool(){
+		return iShapePool;
+	}
+
+	/**
+	 * Returns the number of lines cleared
+	 * @return iLineCount
+	 */
+	public int getLineCount(){
+		return iLineCount;
+	}
+
+	/**
+	 * Returns the score
+	 * @return iScore
+	 */
+	public int getScore(){
+		return iScore;
+	}
+
+	/**
+	 * Returns the level
+	 * @return iLevel
+	 */
+	public int getLevel(){
+		return iLevel;
+	}
+
+	/**
+	 * Returns the number of shapes that have been played, including the active one
+	 * @return iPieceCount
+	 */
+	public int getPieceCount(){
+		return iPieceCount;
+	}
+
+	/**
+	 * Returns the number of gravity ticks the game has been stepped, including the one that
+	 * ended it. Moves made between two ticks can be identified by the count.
+	 * @return iTickCount
+	 */
+	public long getTickCount(){
+		return iTickCount;
+	}
+
+	/**
+	 * Ends the game where it stands, e.g. after a fault has left it part way through a step.
+	 * No more moves or steps are made until the engine is reset.
+	 */
+	void endGame(){
+		iGameOver = true;
+	}
+
+	/**
+	 * Returns true if the game is over
+	 * @return iGameOver
+	 */
+	public boolean isGameOver(){
+		return iGameOver;
+	}
+}
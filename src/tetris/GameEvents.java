@@ -0,0 +1,217 @@
+package tetris;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+
+/**
+ * Java Flight Recorder events emitted by the game, so that gameplay can be lined up with garbage
+ * collection, compilation and rendering in a single recording. The events are in the category
+ * Tetris and are all enabled by default, e.g. record with
+ * -XX:StartFlightRecording=filename=tetris.jfr and open the recording in JDK Mission Control.
+ *
+ * Events follow the usual JFR pattern - an event object is created, tested with isEnabled() or
+ * shouldCommit() and only then filled in and committed - so while nothing is recording an event
+ * costs a check of a flag, and the JIT compiler removes the allocation of the event object.
+ * LinesCleared is the exception, as it is begun on every gravity tick but only committed when
+ * lines were cleared - its EventType is checked before the event object is created instead.
+ *
+ * @author emma
+ * @see GameEngine
+ * @see GameLoop
+ * @see GameMetrics
+ */
+public final class GameEvents {
+
+	private static final EventType LINES_CLEARED = EventType.getEventType(LinesCleared.class); //checked before timing a line clear
+
+	/**
+	 * Not instantiable, only the events and static methods
+	 */
+	private GameEvents(){
+	}
+
+	/**
+	 * A new active shape has been spawned after the previous one settled
+	 */
+	@Name("tetris.PieceSpawned")
+	@Label("Piece Spawned")
+	@Category("Tetris")
+	@Description("A new active shape has been spawned after the previous one settled")
+	public static final class PieceSpawned extends Event {
+
+		@Label("Type")
+		String type;
+
+		@Label("Piece Count")
+		@Description("Number of shapes played in the game, including this one")
+		int pieceCount;
+	}
+
+	/**
+	 * The active shape has settled onto the board
+	 */
+	@Name("tetris.PieceLocked")
+	@Label("Piece Locked")
+	@Category("Tetris")
+	@Description("The active shape has settled onto the board")
+	public static final class PieceLocked extends Event {
+
+		@Label("Type")
+		String type;
+
+		@Label("Orientation")
+		int orientation;
+
+		@Label("X")
+		@Description("Standard x coordinate of the top-left of the shape's frame")
+		int x;
+
+		@Label("Y")
+		@Description("Standard y coordinate of the top-left of the shape's frame")
+		int y;
+	}
+
+	/**
+	 * Full lines have been cleared from the board. The duration of the event is the time taken
+	 * to clear them.
+	 */
+	@Name("tetris.LinesCleared")
+	@Label("Lines Cleared")
+	@Category("Tetris")
+	@Description("Full lines have been cleared from the board")
+	public static final class LinesCleared extends Event {
+
+		@Label("Rows")
+		int rows;
+
+		@Label("Line Count")
+		@Description("Number of lines cleared in the game so far")
+		int lineCount;
+	}
+
+	/**
+	 * A gravity tick was made more than a logic timestep after it was due
+	 */
+	@Name("tetris.TickLate")
+	@Label("Tick Late")
+	@Category("Tetris")
+	@Description("A gravity tick was made more than a logic timestep after it was due")
+	public static final class TickLate extends Event {
+
+		@Label("Lateness")
+		@Timespan(Timespan.NANOSECONDS)
+		long lateness;
+
+		@Label("Interval")
+		@Description("Interval between gravity ticks at the level of the game")
+		@Timespan(Timespan.MILLISECONDS)
+		long interval;
+	}
+
+	/**
+	 * A frame showing the result of a key press has been painted
+	 */
+	@Name("tetris.InputToPaintLatency")
+	@Label("Input To Paint Latency")
+	@Category("Tetris")
+	@Description("A frame showing the result of a key press has been painted")
+	public static final class InputToPaintLatency extends Event {
+
+		@Label("Latency")
+		@Description("Time from the key press being handled to the frame showing it being painted")
+		@Timespan(Timespan.NANOSECONDS)
+		long latency;
+	}
+
+	/**
+	 * Emits a PieceSpawned event if it is enabled
+	 * @param shape the shape spawned
+	 * @param pieceCount
+	 */
+	static void pieceSpawned(ComplexShape shape, int pieceCount){
+		PieceSpawned event = new PieceSpawned();
+		if(event.isEnabled()){
+			event.type = shape.getType().name();
+			event.pieceCount = pieceCount;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Emits a PieceLocked event if it is enabled
+	 * @param shape the shape that has settled
+	 */
+	static void pieceLocked(ComplexShape shape){
+		PieceLocked event = new PieceLocked();
+		if(event.isEnabled()){
+			event.type = shape.getType().name();
+			event.orientation = shape.getOrientation();
+			event.x = shape.getStdX();
+			event.y = shape.getStdY();
+			event.commit();
+		}
+	}
+
+	/**
+	 * Begins timing a line clear, if LinesCleared events are enabled
+	 * @return the event begun, or null if they are disabled
+	 */
+	static LinesCleared beginLinesCleared(){
+		if(!LINES_CLEARED.isEnabled()){
+			return null;
+		}
+		LinesCleared event = new LinesCleared();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Ends and emits a LinesCleared event begun by beginLinesCleared(), if it should be committed
+	 * @param event the event begun, or null if none was
+	 * @param rows the number of lines cleared
+	 * @param lineCount the number of lines cleared in the game so far
+	 */
+	static void linesCleared(LinesCleared event, int rows, int lineCount){
+		if(event==null){
+			return;
+		}
+		event.end();
+		if(event.shouldCommit()){
+			event.rows = rows;
+			event.lineCount = lineCount;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Emits a TickLate event if it is enabled
+	 * @param latenessNanos how late the tick was made
+	 * @param intervalMillis
+	 */
+	static void tickLate(long latenessNanos, long intervalMillis){
+		TickLate event = new TickLate();
+		if(event.isEnabled()){
+			event.lateness = latenessNanos;
+			event.interval = intervalMillis;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Emits an InputToPaintLatency event for a frame just painted, if it is enabled
+	 * @param inputNanos the System.nanoTime() the key press was handled at
+	 */
+	static void inputPainted(long inputNanos){
+		InputToPaintLatency event = new InputToPaintLatency();
+		if(event.isEnabled()){
+			event.latency = System.nanoTime() - inputNanos;
+			event.commit();
+		}
+	}
+}
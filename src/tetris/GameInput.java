@@ -0,0 +1,38 @@
+package tetris;
+
+/**
+ * The moves a player can make, as passed from the key handling of the Canvas to the thread
+ * running the game.
+ * 
+ * @author emma
+ * @see GameLoop#submit(GameInput)
+ * @see Canvas
+ */
+public enum GameInput {
+	LEFT,
+	RIGHT,
+	DOWN,
+	ROTATE,
+	HARD_DROP;
+	
+	/**
+	 * Makes the move on the engine
+	 * 
+	 * @param engine
+	 * @return true if the active shape moved
+	 */
+	public boolean apply(GameEngine engine){
+		switch(this){
+		case LEFT:
+			return engine.moveLeft();
+		case RIGHT:
+			return engine.moveRight();
+		case DOWN:
+			return engine.moveDown();
+		case ROTATE:
+			return engine.rotate();
+		default:
+			return engine.hardDrop()>0;
+		}
+	}
+}
@@ -0,0 +1,564 @@
+package tetris;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Runs a GameEngine in real time. A ScheduledExecutorService runs the loop at a fixed logic
+ * timestep, and on every run the engine is stepped once for each gravity tick that has fallen
+ * due, with gravity ticks spaced by the interval for the current level. Timing is measured
+ * against when each gravity tick was due rather than when the previous one ran, so the cost of
+ * a step does not make the drop speed drift. If the loop falls far behind (for instance after
+ * the machine was suspended) at most MAX_CATCH_UP_STEPS are made and the rest are dropped,
+ * rather than the shape suddenly falling many rows.
+ *
+ * The lateness of each gravity tick compared to when it was due is measured and exposed as the
+ * tick jitter, and ticks made more than a logic timestep late are reported to Java Flight Recorder.
+ *
+ * The engine is only ever used on the thread of the loop. Other threads pass the player's moves
+ * in through submit(GameInput), which queues them to be made on the loop's thread, and see the
+ * game through the immutable GameState snapshots the loop publishes after every change. Painting
+ * therefore never takes a lock and never sees a half-made move.
+ *
+ * A MovePolicy such as the AutoPlayer can be set to play the game, in which case it makes its
+ * moves on the loop's thread before every gravity tick, as it would in a Simulator. Moves
+ * submitted while an auto player is set are ignored, so a Replay set as the auto player plays
+ * the recorded game exactly.
+ *
+ * The game can be saved from any thread with saveGame(Path), which copies it on the loop's thread
+ * between two moves and writes the copy to the disk on a thread of its own. A new game can be
+ * started with newGame(), which resets the engine in place and starts the gravity ticks again if
+ * the previous game was over.
+ *
+ * A ReplayRecorder can be set to record the moves the user makes, stamped with the tick of the
+ * engine they were made after; the recording is ended when the game is over or a new game is
+ * started.
+ *
+ * @author emma
+ * @see GameEngine
+ * @see Driver
+ */
+public class GameLoop implements Runnable {
+
+	public static final long LOGIC_TIMESTEP_MILLIS = 10; //how often the loop runs
+	public static final int MAX_CATCH_UP_STEPS = 5; //most gravity ticks made in one run of the loop
+
+	/*
+	 * The interval in milliseconds between gravity ticks at each level. Every level is
+	 * roughly 15% faster than the one before, so the difference between neighbouring
+	 * levels is felt evenly across the whole range.
+	 */
+	private static final long[] GRAVITY_INTERVAL_MILLIS = {
+		1000, 850, 720, 610, 520, 440, 380, 320, 270, 230, 200, 170, 150, 130
+	};
+
+	/**
+	 * Receives the events of the loop. Called on the thread of the loop.
+	 */
+	public interface Listener {
+
+		/**
+		 * Called after the engine has been stepped or moved, with the newly published snapshot
+		 * @param state
+		 */
+		public void stateChanged(GameState state);
+
+		/**
+		 * Called once when the game is over, after which no more gravity ticks are made until
+		 * a new game is started
+		 */
+		public void gameOver();
+
+		/**
+		 * Called when a new game has been started, before its first snapshot is published
+		 */
+		public void newGame();
+	}
+
+	/**
+	 * A move waiting to be made, with the time it was submitted
+	 */
+	private static final class QueuedInput {
+
+		final GameInput iInput; //the move
+		final long iSubmitNanos; //System.nanoTime() the move was submitted at
+
+		QueuedInput(GameInput input, long submitNanos){
+			iInput = input;
+			iSubmitNanos = submitNanos;
+		}
+	}
+
+	private final GameEngine iEngine; //the game being run
+	private final Listener iListener; //told about steps and the end of the game
+	private final ScheduledExecutorService iExecutor; //runs the loop
+	private final ExecutorService iSaver; //writes saved games to the disk, off the loop's thread
+	private final ConcurrentLinkedQueue<QueuedInput> iInputs = new ConcurrentLinkedQueue<QueuedInput>(); //moves waiting to be made, oldest first
+	private final Runnable iInputDrainer = new Runnable() { //makes the waiting moves on the loop's thread
+		public void run(){
+			try{
+				makeInputs();
+			}
+			catch(RuntimeException e){
+				fail(e);
+			}
+		}
+	};
+	private volatile GameState iState; //the latest published snapshot of the engine
+	private volatile MovePolicy iAutoPlayer; //plays the game instead of the user, null if the user plays
+	private final SplittableRandom iAutoPlayerRandom = new SplittableRandom(); //passed to the auto player
+	private volatile ReplayRecorder iRecorder; //records the moves made, null if not recording
+
+	private ScheduledFuture<?> iTicker; //runs the loop at the logic timestep, cancelled when the game is over
+	private long iNextTickNanos; //when the next gravity tick is due
+	private volatile long iLastJitterNanos = 0; //lateness of the latest gravity tick
+	private volatile long iMaxJitterNanos = 0; //greatest lateness of a gravity tick
+	private volatile long iTotalJitterNanos = 0; //lateness of all gravity ticks
+	private volatile long iTickCount = 0; //the number of gravity ticks made
+	private volatile long iDroppedTickCount = 0; //gravity ticks skipped because the loop was too far behind
+
+	/**
+	 * Creates a loop for the engine. The loop does not run until start() is called.
+	 *
+	 * @param engine
+	 * @param listener
+	 */
+	public GameLoop(GameEngine engine, Listener listener){
+		iEngine = engine;
+		iListener = listener;
+		iExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable runnable){
+				return new Thread(runnable, "GameLoop");
+			}
+		});
+		iSaver = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable runnable){
+				return new Thread(runnable, "GameSaver");
+			}
+		});
+	}
+
+	/**
+	 * Starts the loop, the first gravity tick being due straight away
+	 */
+	public void start(){
+		iExecutor.execute(new Runnable() {
+			public void run(){
+				try{
+					publish();
+					startTicking();
+				}
+				catch(RuntimeException e){
+					fail(e);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Schedules the gravity ticks, the first being due straight away. Called on the thread of
+	 * the loop, so the ticker is set before the first tick is made.
+	 */
+	private void startTicking(){
+		iNextTickNanos = System.nanoTime();
+		iTicker = iExecutor.scheduleAtFixedRate(this, 0, LOGIC_TIMESTEP_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Starts a new game on the thread of the loop - ends any recording, drops moves still
+	 * waiting to be made, resets the engine in place and publishes the new game. Safe to call
+	 * from any thread, whether or not the game is over.
+	 *
+	 * If a Replay is playing it starts again from the beginning, in a game with the recorded
+	 * seed. Any other auto player is removed and the new game, with a new generator, is left
+	 * to the user.
+	 */
+	public void newGame(){
+		try{
+			iExecutor.execute(new Runnable() {
+				public void run(){
+					try{
+						endRecording();
+						iInputs.clear();
+						MovePolicy autoPlayer = iAutoPlayer;
+						if(autoPlayer instanceof Replay){
+							((Replay)autoPlayer).restart(iEngine);
+						}
+						else{
+							iAutoPlayer = null;
+							iEngine.reset(new SplittableRandom());
+						}
+						iListener.newGame();
+						publish();
+						if(iTicker!=null && iTicker.isCancelled()){
+							startTicking();
+						}
+						else{
+							//still ticking, or not started yet in which case start() begins the ticks
+							iNextTickNanos = System.nanoTime();
+						}
+					}
+					catch(RuntimeException e){
+						fail(e);
+					}
+				}
+			});
+		}
+		catch(RejectedExecutionException e){
+			//the loop has been stopped
+		}
+	}
+
+	/**
+	 * Stops the loop for good. Games saved before the loop was stopped are still written.
+	 */
+	public void stop(){
+		try{
+			iExecutor.execute(new Runnable() {
+				public void run(){
+					iSaver.shutdown();
+				}
+			});
+		}
+		catch(RejectedExecutionException e){
+			//already stopped
+		}
+		iExecutor.shutdown();
+	}
+
+	/**
+	 * Waits for the loop to finish after it has been stopped
+	 *
+	 * @param timeoutMillis the longest time to wait
+	 * @return true if the loop finished, false if the wait timed out
+	 * @throws InterruptedException
+	 */
+	public boolean awaitTermination(long timeoutMillis) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		return iExecutor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)
+				&& iSaver.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Queues a move to be made on the thread of the loop. Safe to call from any thread;
+	 * moves submitted once the game is over or the loop stopped, or while an auto player is
+	 * set, are ignored. The time of the submission is passed on in the snapshot that first
+	 * shows the move, so the latency from the key press to the frame showing it can be measured.
+	 *
+	 * @param input
+	 * @see GameState#getInputNanos()
+	 */
+	public void submit(GameInput input){
+		if(iAutoPlayer!=null){
+			return;
+		}
+		iInputs.offer(new QueuedInput(input, System.nanoTime()));
+		try{
+			iExecutor.execute(iInputDrainer);
+		}
+		catch(RejectedExecutionException e){
+			//the loop has been stopped
+			iInputs.clear();
+		}
+	}
+
+	/**
+	 * Sets a policy to make moves before every gravity tick, e.g. to run a demo, or null to leave
+	 * the game to the user. Safe to call from any thread.
+	 *
+	 * @param autoPlayer
+	 * @see AutoPlayer
+	 */
+	public void setAutoPlayer(MovePolicy autoPlayer){
+		iAutoPlayer = autoPlayer;
+	}
+
+	/**
+	 * Saves the game to a file. Safe to call from any thread. The game is copied on the thread
+	 * of the loop between two moves, and the copy written to the disk on a thread of its own so
+	 * the loop never waits for the disk. Saves are written in the order they were made; errors
+	 * saving are reported and the game carries on regardless. Does nothing once the game is over.
+	 *
+	 * @param file
+	 * @see GameSnapshot
+	 */
+	public void saveGame(final Path file){
+		try{
+			iExecutor.execute(new Runnable() {
+				public void run(){
+					if(iEngine.isGameOver()){
+						return;
+					}
+					final ByteBuffer snapshot;
+					try{
+						snapshot = GameSnapshot.capture(iEngine);
+					}
+					catch(RuntimeException e){
+						fail(e);
+						return;
+					}
+					try{
+						iSaver.execute(new Runnable() {
+							public void run(){
+								try{
+									GameSnapshot.write(snapshot, file);
+								}
+								catch(IOException e){
+									e.printStackTrace();
+								}
+							}
+						});
+					}
+					catch(RejectedExecutionException e){
+						//the loop has been stopped
+					}
+				}
+			});
+		}
+		catch(RejectedExecutionException e){
+			//the loop has been stopped
+		}
+	}
+
+	/**
+	 * Sets a recorder to record the moves submitted from now on, or null to stop recording.
+	 * Should be set before the loop is started; the loop ends the recording when the game is over,
+	 * otherwise it is up to the caller to close it once the loop has finished.
+	 *
+	 * @param recorder
+	 * @see #awaitTermination(long)
+	 */
+	public void setRecorder(ReplayRecorder recorder){
+		iRecorder = recorder;
+	}
+
+	/**
+	 * Returns the latest snapshot of the game, or null if the loop has not started yet.
+	 * Safe to call from any thread.
+	 *
+	 * @return iState
+	 */
+	public GameState getState(){
+		return iState;
+	}
+
+	/**
+	 * Makes the queued moves and publishes a snapshot if any of them moved the active shape,
+	 * stamped with the time the oldest of the moves was submitted
+	 */
+	private void makeInputs(){
+		long start = GameMetrics.ENABLED ? System.nanoTime() : 0;
+		long inputNanos = 0;
+		boolean moved = false;
+		QueuedInput queued;
+		while((queued = iInputs.poll())!=null){
+			if(inputNanos==0){
+				inputNanos = queued.iSubmitNanos;
+			}
+			if(queued.iInput.apply(iEngine)){
+				moved = true;
+				record(queued.iInput);
+			}
+		}
+		if(GameMetrics.ENABLED){
+			GameMetrics.INPUT.recordSince(start);
+		}
+		if(moved){
+			publish(inputNanos);
+		}
+	}
+
+	/**
+	 * Records a move that has been made, if recording. If the recording cannot be written the
+	 * error is reported and recording stops, the game carrying on regardless.
+	 *
+	 * @param input
+	 */
+	private void record(GameInput input){
+		ReplayRecorder recorder = iRecorder;
+		if(recorder==null){
+			return;
+		}
+		try{
+			recorder.record(iEngine.getTickCount(), input);
+		}
+		catch(IOException e){
+			e.printStackTrace();
+			iRecorder = null;
+		}
+	}
+
+	/**
+	 * Ends the recording, if recording, at the tick the game ended
+	 */
+	private void endRecording(){
+		ReplayRecorder recorder = iRecorder;
+		if(recorder==null){
+			return;
+		}
+		iRecorder = null;
+		try{
+			recorder.close(iEngine.getTickCount());
+		}
+		catch(IOException e){
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Publishes a snapshot of the engine and tells the listener
+	 */
+	private void publish(){
+		publish(0);
+	}
+
+	/**
+	 * Publishes a snapshot of the engine showing moves submitted from the given time, and tells
+	 * the listener
+	 * @param inputNanos the System.nanoTime() the earliest of the moves was submitted at, 0 if none
+	 */
+	private void publish(long inputNanos){
+		iState = new GameState(iEngine, inputNanos);
+		iListener.stateChanged(iState);
+	}
+
+	/**
+	 * A single run of the loop - makes the gravity ticks that are due. A fault making them ends
+	 * the game.
+	 */
+	public void run(){
+		try{
+			long now = System.nanoTime();
+			int steps = 0;
+			while(now-iNextTickNanos>=0 && steps<MAX_CATCH_UP_STEPS){
+				recordJitter(now-iNextTickNanos);
+				steps++;
+				MovePolicy autoPlayer = iAutoPlayer;
+				if(autoPlayer!=null){
+					autoPlayer.makeMoves(iEngine, iAutoPlayerRandom);
+				}
+				long start = GameMetrics.ENABLED ? System.nanoTime() : 0;
+				boolean stepped = iEngine.step();
+				if(GameMetrics.ENABLED){
+					GameMetrics.TICK.recordSince(start);
+				}
+				if(!stepped){
+					endGame();
+					return;
+				}
+				iNextTickNanos+=TimeUnit.MILLISECONDS.toNanos(gravityInterval(iEngine.getLevel()));
+			}
+			if(now-iNextTickNanos>=0){
+				//too far behind, drop the ticks that are still due
+				long interval = TimeUnit.MILLISECONDS.toNanos(gravityInterval(iEngine.getLevel()));
+				long behind = now-iNextTickNanos;
+				iDroppedTickCount+=(behind/interval) + 1;
+				iNextTickNanos = now + interval;
+			}
+			if(steps>0){
+				publish();
+			}
+		}
+		catch(RuntimeException e){
+			fail(e);
+		}
+	}
+
+	/**
+	 * Handles a fault in a task run on the thread of the loop. The engine may have been left part
+	 * way through a step, so rather than carry on with it, or fail again on every run, the fault
+	 * is reported once and the game ended, which the user then sees.
+	 *
+	 * @param e
+	 */
+	private void fail(RuntimeException e){
+		e.printStackTrace();
+		iEngine.endGame();
+		endGame();
+	}
+
+	/**
+	 * Stops the gravity ticks once the game is over, ends any recording, publishes the final
+	 * snapshot and tells the listener
+	 */
+	private void endGame(){
+		if(iTicker!=null){
+			iTicker.cancel(false);
+		}
+		endRecording();
+		publish();
+		iListener.gameOver();
+	}
+
+	/**
+	 * Adds the lateness of a gravity tick to the jitter measurements
+	 * @param jitterNanos
+	 */
+	private void recordJitter(long jitterNanos){
+		if(jitterNanos>TimeUnit.MILLISECONDS.toNanos(LOGIC_TIMESTEP_MILLIS)){
+			GameEvents.tickLate(jitterNanos, gravityInterval(iEngine.getLevel()));
+		}
+		iLastJitterNanos = jitterNanos;
+		iMaxJitterNanos = Math.max(iMaxJitterNanos, jitterNanos);
+		iTotalJitterNanos+=jitterNanos;
+		iTickCount++;
+	}
+
+	/**
+	 * Returns the interval in milliseconds between gravity ticks at a level
+	 * @param level
+	 */
+	public static long gravityInterval(int level){
+		return GRAVITY_INTERVAL_MILLIS[Math.min(level, GRAVITY_INTERVAL_MILLIS.length-1)];
+	}
+
+	/**
+	 * Returns how late the latest gravity tick was made, in nanoseconds
+	 * @return iLastJitterNanos
+	 */
+	public long getLastJitterNanos(){
+		return iLastJitterNanos;
+	}
+
+	/**
+	 * Returns the greatest lateness of a gravity tick, in nanoseconds
+	 * @return iMaxJitterNanos
+	 */
+	public long getMaxJitterNanos(){
+		return iMaxJitterNanos;
+	}
+
+	/**
+	 * Returns how late gravity ticks were made on average, in nanoseconds
+	 */
+	public long getMeanJitterNanos(){
+		return iTickCount==0 ? 0 : iTotalJitterNanos/iTickCount;
+	}
+
+	/**
+	 * Returns the number of gravity ticks made
+	 * @return iTickCount
+	 */
+	public long getTickCount(){
+		return iTickCount;
+	}
+
+	/**
+	 * Returns the number of gravity ticks skipped because the loop fell too far behind
+	 * @return iDroppedTickCount
+	 */
+	public long getDroppedTickCount(){
+		return iDroppedTickCount;
+	}
+}
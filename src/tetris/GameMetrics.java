@@ -0,0 +1,161 @@
+package tetris;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+
+/**
+ * Instrumentation of the game - latency histograms of gravity ticks, line clears, the checks
+ * for whether the active shape has settled, moves and paints, and counters of the shapes spawned,
+ * lines cleared, repaints requested and paints made.
+ *
+ * Metrics are only gathered when the system property tetris.metrics is true (e.g.
+ * -Dtetris.metrics=true). ENABLED is a constant, and every instrumented call site tests it
+ * before calling System.nanoTime() or recording anything, so when metrics are disabled the JIT
+ * compiler removes the instrumentation altogether.
+ *
+ * The metrics can be read through JMX once register() has been called, as the MBeans
+ * tetris:type=GameMetrics and tetris:type=Latency,name=..., and printed periodically with
+ * startLogging(long).
+ *
+ * @author emma
+ * @see LatencyHistogram
+ * @see Driver
+ */
+public final class GameMetrics implements GameMetricsMBean {
+
+	public static final boolean ENABLED = Boolean.getBoolean("tetris.metrics"); //whether metrics are gathered
+
+	public static final LatencyHistogram TICK = new LatencyHistogram("tick"); //GameEngine.step() made by the loop
+	public static final LatencyHistogram LINE_CLEAR = new LatencyHistogram("lineClear"); //GameEngine.detectFullLine()
+	public static final LatencyHistogram SETTLE_CHECK = new LatencyHistogram("settleCheck"); //GameEngine.checkActiveBlockValid()
+	public static final LatencyHistogram INPUT = new LatencyHistogram("input"); //moves made by the loop
+	public static final LatencyHistogram PAINT = new LatencyHistogram("paint"); //painting a canvas or rendering a frame
+	private static final LatencyHistogram[] HISTOGRAMS = {TICK, LINE_CLEAR, SETTLE_CHECK, INPUT, PAINT};
+
+	private static final GameMetrics COUNTERS = new GameMetrics(); //the counters, an MBean
+	private static final LongAdder PIECES_SPAWNED = new LongAdder();
+	private static final LongAdder LINES_CLEARED = new LongAdder();
+	private static final LongAdder REPAINTS_REQUESTED = new LongAdder();
+	private static final LongAdder PAINTS = new LongAdder();
+
+	/**
+	 * Only the instance registered as the MBean of the counters
+	 */
+	private GameMetrics(){
+	}
+
+	/**
+	 * Counts a shape spawned
+	 */
+	public static void pieceSpawned(){
+		PIECES_SPAWNED.increment();
+	}
+
+	/**
+	 * Counts lines cleared
+	 * @param lines
+	 */
+	public static void linesCleared(int lines){
+		LINES_CLEARED.add(lines);
+	}
+
+	/**
+	 * Counts a repaint requested of the canvas
+	 */
+	public static void repaintRequested(){
+		REPAINTS_REQUESTED.increment();
+	}
+
+	/**
+	 * Counts a paint of a canvas or a rendered frame
+	 */
+	public static void painted(){
+		PAINTS.increment();
+	}
+
+	public long getPiecesSpawned(){
+		return PIECES_SPAWNED.sum();
+	}
+
+	public long getLinesCleared(){
+		return LINES_CLEARED.sum();
+	}
+
+	public long getRepaintsRequested(){
+		return REPAINTS_REQUESTED.sum();
+	}
+
+	public long getPaints(){
+		return PAINTS.sum();
+	}
+
+	public void reset(){
+		PIECES_SPAWNED.reset();
+		LINES_CLEARED.reset();
+		REPAINTS_REQUESTED.reset();
+		PAINTS.reset();
+		for(LatencyHistogram histogram : HISTOGRAMS){
+			histogram.reset();
+		}
+	}
+
+	/**
+	 * Registers the counters and histograms with the platform MBean server. Errors are reported
+	 * and otherwise ignored, the game does not depend on them.
+	 */
+	public static void register(){
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try{
+			server.registerMBean(COUNTERS, new ObjectName("tetris:type=GameMetrics"));
+			for(LatencyHistogram histogram : HISTOGRAMS){
+				server.registerMBean(histogram, new ObjectName("tetris:type=Latency,name=" + histogram.getName()));
+			}
+		}
+		catch(JMException e){
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Prints the metrics to System.out every periodSeconds on a daemon thread
+	 * @param periodSeconds
+	 */
+	public static void startLogging(long periodSeconds){
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable runnable){
+				Thread thread = new Thread(runnable, "GameMetrics");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		executor.scheduleAtFixedRate(new Runnable() {
+			public void run(){
+				System.out.println(report());
+			}
+		}, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Returns the counters and histograms, one per line
+	 */
+	public static String report(){
+		StringBuilder report = new StringBuilder();
+		report.append("Pieces spawned: ").append(COUNTERS.getPiecesSpawned())
+				.append(" Lines cleared: ").append(COUNTERS.getLinesCleared())
+				.append(" Repaints requested: ").append(COUNTERS.getRepaintsRequested())
+				.append(" Paints: ").append(COUNTERS.getPaints());
+		for(LatencyHistogram histogram : HISTOGRAMS){
+			report.append(System.lineSeparator()).append(histogram);
+		}
+		return report.toString();
+	}
+}
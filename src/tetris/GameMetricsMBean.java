@@ -0,0 +1,37 @@
+package tetris;
+
+
+/**
+ * The management interface of the GameMetrics counters, through which JMX clients such as
+ * JConsole read them.
+ *
+ * @author emma
+ * @see GameMetrics
+ */
+public interface GameMetricsMBean {
+
+	/**
+	 * Returns the number of shapes spawned
+	 */
+	public long getPiecesSpawned();
+
+	/**
+	 * Returns the number of lines cleared
+	 */
+	public long getLinesCleared();
+
+	/**
+	 * Returns the number of repaints requested of the passively painted canvas
+	 */
+	public long getRepaintsRequested();
+
+	/**
+	 * Returns the number of times a canvas was painted or a frame rendered
+	 */
+	public long getPaints();
+
+	/**
+	 * Sets the counters and histograms back to 0
+	 */
+	public void reset();
+}
@@ -0,0 +1,128 @@
+package tetris;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+
+/**
+ * Saves games to and loads them from files. A saved game is a fixed layout of SIZE bytes - a
+ * header of the magic number and the format version followed by the state written by
+ * GameEngine.writeTo(ByteBuffer), i.e. the bit-packed rows and the colours of the board, the active
+ * shape, the line count, score and level and the queued shapes.
+ *
+ * Saving is split in two. capture(GameEngine) copies the game into a buffer, which takes
+ * microseconds and is done on the thread the engine is used on. write(ByteBuffer, Path) then
+ * writes the buffer to a temporary file in the same directory, forces it to the disk and moves it
+ * over the saved game in a single atomic step, so a crash or a full disk part way through a save
+ * leaves the previous save intact. Writing waits for the disk, so it is best done on a thread of
+ * its own.
+ *
+ * @author emma
+ * @see GameEngine#writeTo(java.nio.ByteBuffer)
+ * @see GameLoop#saveGame(Path)
+ */
+public class GameSnapshot {
+
+	public static final int MAGIC = 0x54545356; //"TTSV"
+	public static final byte VERSION = 1; //version of the format written
+	public static final int SIZE = 4 + 1 + GameEngine.SNAPSHOT_BYTES; //bytes of a saved game
+
+	/**
+	 * Not instantiable, only static methods
+	 */
+	private GameSnapshot(){
+	}
+
+	/**
+	 * Saves a game to a file, replacing any game saved in it. Must be called on the thread
+	 * the engine is used on, and waits for the file to reach the disk.
+	 *
+	 * @param engine
+	 * @param file
+	 * @throws IOException
+	 */
+	public static void save(GameEngine engine, Path file) throws IOException {
+		write(capture(engine), file);
+	}
+
+	/**
+	 * Copies a game into a buffer of SIZE bytes, ready to be written. Must be called on the thread
+	 * the engine is used on. A game that is over cannot be loaded again, as its last shape does
+	 * not fit on the board.
+	 *
+	 * @param engine
+	 * @return the snapshot, flipped for reading
+	 */
+	public static ByteBuffer capture(GameEngine engine){
+		ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+		buffer.putInt(MAGIC);
+		buffer.put(VERSION);
+		engine.writeTo(buffer);
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Writes a snapshot taken by capture(GameEngine) to a file, replacing any game saved in it.
+	 * The file is only replaced once the whole snapshot is on the disk.
+	 *
+	 * @param snapshot
+	 * @param file
+	 * @throws IOException
+	 */
+	public static void write(ByteBuffer snapshot, Path file) throws IOException {
+		Path directory = file.toAbsolutePath().getParent();
+		Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+		try{
+			try(FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)){
+				while(snapshot.hasRemaining()){
+					channel.write(snapshot);
+				}
+				channel.force(true);
+			}
+			Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally{
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * Loads a game from a file. The game carries on with the shapes that were queued when it
+	 * was saved, and then deals shapes with an unseeded generator.
+	 *
+	 * @param file
+	 * @throws IOException if the file cannot be read or does not hold a saved game
+	 */
+	public static GameEngine load(Path file) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+			if(channel.size()!=SIZE){
+				throw new IOException(file + " is not a saved game");
+			}
+			while(buffer.hasRemaining() && channel.read(buffer)>=0){
+				//keep reading until the whole file is in the buffer
+			}
+		}
+		buffer.flip();
+		if(buffer.remaining()!=SIZE || buffer.getInt()!=MAGIC){
+			throw new IOException(file + " is not a saved game");
+		}
+		byte version = buffer.get();
+		if(version!=VERSION){
+			throw new IOException(file + " is saved in version " + version + ", only version " + VERSION + " can be read");
+		}
+		try{
+			return GameEngine.readFrom(buffer, new SplittableRandom());
+		}
+		catch(IllegalArgumentException e){
+			throw new IOException(file + " holds an invalid game", e);
+		}
+	}
+}
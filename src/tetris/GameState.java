@@ -0,0 +1,181 @@
+package tetris;
+
+/**
+ * An immutable snapshot of a game - the settled blocks, the cells and colour of the active
+ * shape and where it would land, the line count, score and level - taken from a GameEngine.
+ * Changes to the engine after the snapshot was taken are not reflected in it.
+ *
+ * @author emma
+ * @see GameEngine
+ */
+public final class GameState {
+
+	private final Board iBoard; //private copy of the settled blocks, never modified
+	private final int[][] iActiveStdCoords = new int[4][2]; //same format as ComplexShape's iStdCoords
+	private final ValidColour iActiveColour; //the colour of the active shape
+	private final int iGhostDistance; //how many rows below the active shape its ghost is
+	private final int iLineCount;
+	private final int iScore;
+	private final int iLevel;
+	private final boolean iGameOver;
+	private final long iInputNanos; //System.nanoTime() the earliest key press first shown by the snapshot was handled at, 0 if none
+
+	/**
+	 * Copies the state of the engine
+	 * @param engine
+	 */
+	GameState(GameEngine engine){
+		this(engine, 0);
+	}
+
+	/**
+	 * Copies the state of the engine, after moves made by key presses
+	 * @param engine
+	 * @param inputNanos the System.nanoTime() the earliest of the key presses was handled at,
+	 * 0 if the snapshot shows no new key presses
+	 */
+	GameState(GameEngine engine, long inputNanos){
+		iBoard = new Board(engine.getBoard());
+		ComplexShape activeBlock = engine.getActiveBlock();
+		int[][] stdCoords = activeBlock.getStdCoords();
+		for(int i=0; i<4; i++){
+			iActiveStdCoords[i][0] = stdCoords[i][0];
+			iActiveStdCoords[i][1] = stdCoords[i][1];
+		}
+		iActiveColour = activeBlock.getValidColour();
+		iGhostDistance = engine.getGhostDistance();
+		iLineCount = engine.getLineCount();
+		iScore = engine.getScore();
+		iLevel = engine.getLevel();
+		iGameOver = engine.isGameOver();
+		iInputNanos = inputNanos;
+	}
+
+	/**
+	 * Returns true if the cell at the specified standard coordinates holds a settled block
+	 * @param x
+	 * @param y
+	 * @see Board#isOccupied(int, int)
+	 */
+	public boolean isOccupied(int x, int y){
+		return iBoard.isOccupied(x, y);
+	}
+
+	/**
+	 * Returns the occupancy bitmask of a row of settled blocks
+	 * @param y
+	 */
+	public int getRow(int y){
+		return iBoard.getRow(y);
+	}
+
+	/**
+	 * Returns the version of the settled blocks. Two snapshots of the same game with the same
+	 * version have the same settled blocks.
+	 * @see Board#getVersion()
+	 */
+	public int getBoardVersion(){
+		return iBoard.getVersion();
+	}
+
+	/**
+	 * Returns a bitmask of the settled blocks of a row that differ between this snapshot and another
+	 * @param state
+	 * @param y
+	 * @see Board#getChangedCells(Board, int)
+	 */
+	public int getChangedCells(GameState state, int y){
+		return iBoard.getChangedCells(state.iBoard, y);
+	}
+
+	/**
+	 * Returns the colour of the settled block at the specified standard coordinates
+	 * @param x
+	 * @param y
+	 */
+	public ValidColour getColour(int x, int y){
+		return iBoard.getColour(x, y);
+	}
+
+	/**
+	 * Returns the standard x coordinate of one of the four blocks of the active shape
+	 * @param index
+	 */
+	public int getActiveStdX(int index){
+		return iActiveStdCoords[index][0];
+	}
+
+	/**
+	 * Returns the standard y coordinate of one of the four blocks of the active shape
+	 * @param index
+	 */
+	public int getActiveStdY(int index){
+		return iActiveStdCoords[index][1];
+	}
+
+	/**
+	 * Returns how many rows below the active shape its ghost is, 0 if the shape has landed
+	 * @return iGhostDistance
+	 */
+	public int getGhostDistance(){
+		return iGhostDistance;
+	}
+
+	/**
+	 * Returns the standard y coordinate of one of the four blocks of the ghost of the active
+	 * shape, where it would land if it were dropped. The x coordinates are those of the active shape.
+	 * @param index
+	 */
+	public int getGhostStdY(int index){
+		return iActiveStdCoords[index][1] + iGhostDistance;
+	}
+
+	/**
+	 * Returns the colour of the active shape
+	 * @return iActiveColour
+	 */
+	public ValidColour getActiveColour(){
+		return iActiveColour;
+	}
+
+	/**
+	 * Returns the number of lines cleared
+	 * @return iLineCount
+	 */
+	public int getLineCount(){
+		return iLineCount;
+	}
+
+	/**
+	 * Returns the score
+	 * @return iScore
+	 */
+	public int getScore(){
+		return iScore;
+	}
+
+	/**
+	 * Returns the level
+	 * @return iLevel
+	 */
+	public int getLevel(){
+		return iLevel;
+	}
+
+	/**
+	 * Returns the System.nanoTime() the earliest key press this snapshot is the first to show
+	 * was handled at, or 0 if it shows no new key presses
+	 * @return iInputNanos
+	 */
+	public long getInputNanos(){
+		return iInputNanos;
+	}
+
+	/**
+	 * Returns true if the game was over when the snapshot was taken
+	 * @return iGameOver
+	 */
+	public boolean isGameOver(){
+		return iGameOver;
+	}
+}
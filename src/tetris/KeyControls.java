@@ -0,0 +1,64 @@
+package tetris;
+
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+
+
+/**
+ * Translates the user's key presses into moves of the active shape, such as moving the shape
+ * to the left when the left key is pressed, and queues them on a GameLoop. Shared by the
+ * components the game can be played in.
+ *
+ * @author emma
+ * @see Canvas
+ * @see ActiveCanvas
+ * @see GameInput
+ */
+public class KeyControls extends KeyAdapter {
+
+	private final GameLoop iLoop; //the loop the moves are queued on
+
+	/**
+	 * Default constructor
+	 * @param loop
+	 */
+	public KeyControls(GameLoop loop){
+		iLoop = loop;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.awt.event.KeyAdapter#keyPressed(java.awt.event.KeyEvent)
+	 */
+	public void keyPressed(KeyEvent e){
+		GameInput input = inputFor(e.getKeyCode());
+		if(input!=null){
+			iLoop.submit(input);
+		}
+	}
+
+	/**
+	 * Returns the move made by a key, or null if the key does not control the game
+	 * @param key
+	 */
+	public static GameInput inputFor(int key){
+		switch(key){
+			case KeyEvent.VK_LEFT:
+				//move the activeBlock to the left
+				return GameInput.LEFT;
+			case KeyEvent.VK_RIGHT:
+				//move the activeBlock to the right
+				return GameInput.RIGHT;
+			case KeyEvent.VK_DOWN:
+				//move the activeBlock down
+				return GameInput.DOWN;
+			case KeyEvent.VK_UP:
+				//rotate the activeBlock
+				return GameInput.ROTATE;
+			case KeyEvent.VK_SPACE:
+				//drop the block as far as it will go
+				return GameInput.HARD_DROP;
+			default:
+				return null;
+		}
+	}
+}
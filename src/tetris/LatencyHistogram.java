@@ -0,0 +1,175 @@
+package tetris;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Records the distribution of a latency in the manner of an HDR histogram - in buckets whose
+ * width grows with the value, so that any value from a nanosecond to hours is counted with the
+ * same relative precision (within about 3%) in a fixed, small amount of memory, and recording
+ * is a couple of shifts and an atomic increment with no allocation.
+ *
+ * Values below 2^SUB_BUCKET_BITS each have a bucket of their own. Above that, every power of two
+ * is split into 2^(SUB_BUCKET_BITS-1) equal buckets. Percentiles are reported as the highest
+ * value of the bucket they fall in.
+ *
+ * Safe to record into from several threads at once.
+ *
+ * @author emma
+ * @see GameMetrics
+ */
+public class LatencyHistogram implements LatencyHistogramMBean {
+
+	private static final int SUB_BUCKET_BITS = 6; //precision of the buckets
+	private static final int SUB_BUCKETS = 1<<SUB_BUCKET_BITS; //values counted exactly
+	private static final int HALF_SUB_BUCKETS = SUB_BUCKETS/2; //buckets per power of two above that
+	private static final int BUCKETS = SUB_BUCKETS + ((64-SUB_BUCKET_BITS)*HALF_SUB_BUCKETS);
+
+	private final String iName; //what is measured
+	private final AtomicLongArray iCounts = new AtomicLongArray(BUCKETS); //number of values in each bucket
+	private final AtomicLong iCount = new AtomicLong(); //number of values recorded
+	private final AtomicLong iTotal = new AtomicLong(); //sum of the values recorded
+	private final AtomicLong iMax = new AtomicLong(); //greatest value recorded
+
+	/**
+	 * Creates an empty histogram
+	 * @param name what is measured, e.g. "tick"
+	 */
+	public LatencyHistogram(String name){
+		iName = name;
+	}
+
+	/**
+	 * Returns what is measured
+	 * @return iName
+	 */
+	public String getName(){
+		return iName;
+	}
+
+	/**
+	 * Records a latency. Negative values are recorded as 0.
+	 * @param nanos
+	 */
+	public void record(long nanos){
+		if(nanos<0){
+			nanos = 0;
+		}
+		iCounts.incrementAndGet(bucket(nanos));
+		iCount.incrementAndGet();
+		iTotal.addAndGet(nanos);
+		long max = iMax.get();
+		while(nanos>max && !iMax.compareAndSet(max, nanos)){
+			max = iMax.get();
+		}
+	}
+
+	/**
+	 * Records the time since the given System.nanoTime()
+	 * @param startNanos
+	 */
+	public void recordSince(long startNanos){
+		record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Returns the bucket a value is counted in
+	 * @param value
+	 */
+	static int bucket(long value){
+		int bits = 64 - Long.numberOfLeadingZeros(value);
+		if(bits<=SUB_BUCKET_BITS){
+			return (int)value;
+		}
+		int shift = bits - SUB_BUCKET_BITS;
+		int top = (int)(value >>> shift); //between HALF_SUB_BUCKETS and SUB_BUCKETS-1
+		return SUB_BUCKETS + ((shift-1)*HALF_SUB_BUCKETS) + (top-HALF_SUB_BUCKETS);
+	}
+
+	/**
+	 * Returns the highest value counted in a bucket
+	 * @param bucket
+	 */
+	static long highestValue(int bucket){
+		if(bucket<SUB_BUCKETS){
+			return bucket;
+		}
+		int shift = ((bucket-SUB_BUCKETS)/HALF_SUB_BUCKETS) + 1;
+		long top = ((bucket-SUB_BUCKETS)%HALF_SUB_BUCKETS) + HALF_SUB_BUCKETS;
+		return ((top+1) << shift) - 1;
+	}
+
+	/**
+	 * Returns the latency that the given percentage of the latencies recorded were no greater
+	 * than, in nanoseconds, or 0 if none have been recorded
+	 * @param percentile between 0 and 100
+	 */
+	public long getValueAtPercentile(double percentile){
+		long count = 0;
+		long[] counts = new long[BUCKETS];
+		for(int i=0; i<BUCKETS; i++){
+			counts[i] = iCounts.get(i);
+			count+=counts[i];
+		}
+		if(count==0){
+			return 0;
+		}
+		long rank = Math.max(1, (long)Math.ceil((percentile/100)*count));
+		long seen = 0;
+		for(int i=0; i<BUCKETS; i++){
+			seen+=counts[i];
+			if(seen>=rank){
+				return Math.min(highestValue(i), iMax.get());
+			}
+		}
+		return iMax.get();
+	}
+
+	public long getCount(){
+		return iCount.get();
+	}
+
+	public double getMeanNanos(){
+		long count = iCount.get();
+		return count==0 ? 0 : (double)iTotal.get()/count;
+	}
+
+	public long getMaxNanos(){
+		return iMax.get();
+	}
+
+	public long getP50Nanos(){
+		return getValueAtPercentile(50);
+	}
+
+	public long getP90Nanos(){
+		return getValueAtPercentile(90);
+	}
+
+	public long getP99Nanos(){
+		return getValueAtPercentile(99);
+	}
+
+	public long getP999Nanos(){
+		return getValueAtPercentile(99.9);
+	}
+
+	/**
+	 * Forgets every latency recorded. Latencies recorded while resetting may be partly kept.
+	 */
+	public void reset(){
+		for(int i=0; i<BUCKETS; i++){
+			iCounts.set(i, 0);
+		}
+		iCount.set(0);
+		iTotal.set(0);
+		iMax.set(0);
+	}
+
+	@Override
+	public String toString(){
+		return iName + ": Count: " + getCount() + " Mean: " + (long)getMeanNanos() + "ns P50: " + getP50Nanos()
+				+ "ns P90: " + getP90Nanos() + "ns P99: " + getP99Nanos() + "ns P99.9: " + getP999Nanos() + "ns Max: " + getMaxNanos() + "ns";
+	}
+}
@@ -0,0 +1,53 @@
+package tetris;
+
+
+/**
+ * The management interface of a LatencyHistogram, through which JMX clients such as JConsole
+ * read the distribution of a latency.
+ *
+ * @author emma
+ * @see LatencyHistogram
+ * @see GameMetrics
+ */
+public interface LatencyHistogramMBean {
+
+	/**
+	 * Returns the number of latencies recorded
+	 */
+	public long getCount();
+
+	/**
+	 * Returns the mean latency in nanoseconds
+	 */
+	public double getMeanNanos();
+
+	/**
+	 * Returns the greatest latency recorded, in nanoseconds
+	 */
+	public long getMaxNanos();
+
+	/**
+	 * Returns the median latency in nanoseconds
+	 */
+	public long getP50Nanos();
+
+	/**
+	 * Returns the 90th percentile latency in nanoseconds
+	 */
+	public long getP90Nanos();
+
+	/**
+	 * Returns the 99th percentile latency in nanoseconds
+	 */
+	public long getP99Nanos();
+
+	/**
+	 * Returns the 99.9th percentile latency in nanoseconds
+	 */
+	public long getP999Nanos();
+
+	/**
+	 * Forgets every latency recorded
+	 */
+	public void reset();
+}
@@ -0,0 +1,148 @@
+package tetris;
+
+import java.awt.FlowLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.nio.file.Paths;
+
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+/**
+ * The MainWindow through which the user plays the game. Specifies the positioning
+ * of all the JComponents that make up the user interface.
+ * 
+ * The new game button starts a new game in the same window. The save game button saves the game
+ * to the file named by the system property tetris.save, SAVE_FILE by default.
+ * @author emma
+ * @see Canvas
+ */
+public class MainWindow extends JFrame{
+	
+	public static final String SAVE_FILE = "tetris.sav"; //the file games are saved to unless tetris.save is set
+	
+	private Canvas canvas; //the canvas for which the positioning of the 
+	private ActiveCanvas activeCanvas; //renders the game instead of the canvas when rendering actively
+	private int lineCount = 0; //the number of lines cleared
+	private Sidebar sidebar; //the side bar
+	
+	/**
+	 * Configures the layout, adds the appropriate JComponents, etc. The game is painted passively
+	 * by Swing.
+	 * 
+	 * @param loop the loop running the game to play in the window
+	 */
+	public MainWindow(GameLoop loop){
+		this(loop, 0);
+	}
+	
+	/**
+	 * Configures the layout, adds the appropriate JComponents, etc.
+	 * 
+	 * @param loop the loop running the game to play in the window
+	 * @param fps if positive the game is rendered actively at no more than this many frames per
+	 * second, otherwise it is painted passively by Swing
+	 * @see ActiveCanvas
+	 */
+	public MainWindow(final GameLoop loop, int fps){
+		JPanel contentPane = new JPanel(new FlowLayout());
+		setContentPane(contentPane);
+		
+		if(fps>0){
+			activeCanvas = new ActiveCanvas(loop, fps);
+			contentPane.add(activeCanvas);
+		}
+		else{
+			canvas = new Canvas(loop);
+			contentPane.add(canvas);
+		}
+		
+		sidebar = new Sidebar();
+		sidebar.addNewGameListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e){
+				loop.newGame();
+				focusGame();
+			}
+		});
+		sidebar.addSaveGameListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e){
+				loop.saveGame(Paths.get(System.getProperty("tetris.save", SAVE_FILE)));
+				focusGame();
+			}
+		});
+		contentPane.add(sidebar);
+		
+		setVisible(true);
+		setResizable(false);
+		pack();
+		setTitle("Tetris");
+		setDefaultCloseOperation(EXIT_ON_CLOSE);
+	}
+	
+	/**
+	 * Gives the keyboard focus back to the game after a button has been pressed
+	 */
+	private void focusGame(){
+		if(canvas!=null){
+			canvas.requestFocusInWindow();
+		}
+		else{
+			activeCanvas.requestFocusInWindow();
+		}
+	}
+	
+	/**
+	 * Resets the sidebar for a new game. Safe to call from any thread, the sidebar is updated
+	 * on the event dispatch thread.
+	 * @see GameLoop.Listener#newGame()
+	 */
+	public void newGame(){
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run(){
+				lineCount = 0;
+				sidebar.reset();
+			}
+		});
+	}
+	
+	/**
+	 * Repaints what changed on the canvas and updates the sidebar after the loop has published a new snapshot.
+	 * When rendering actively the next frame picks up the snapshot by itself.
+	 * Safe to call from any thread, the sidebar is updated on the event dispatch thread.
+	 * @param state
+	 * @see GameLoop.Listener#stateChanged(GameState)
+	 */
+	public void refresh(final GameState state){
+		if(canvas!=null){
+			canvas.repaintChanges(state);
+		}
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run(){
+				hasScoreChanged(state);
+			}
+		});
+	}
+	
+	/**
+	 * Checks if the score has changed and returns true if so. Must be called on
+	 * the event dispatch thread.
+	 * @param state
+	 */
+	public boolean hasScoreChanged(GameState state){
+		if(lineCount!=state.getLineCount()){
+			lineCount = state.getLineCount();
+			sidebar.setScore(state.getScore());
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Get the current level
+	 * @return sidebar.getLevel()
+	 */
+	public int getLevel(){
+		return sidebar.getLevel();
+	}
+}
@@ -0,0 +1,28 @@
+package tetris;
+
+import java.util.SplittableRandom;
+
+
+/**
+ * Decides the moves made on behalf of a player in a simulated game. Before every gravity tick
+ * the Simulator passes the policy the game and a generator belonging to that game; the policy
+ * then makes its moves through the engine's move/rotate API.
+ * 
+ * Policies are shared between all of the games of a simulation, which are played on several
+ * threads at once, so implementations should not keep mutable state of their own - anything
+ * random should come from the generator passed in.
+ * 
+ * @author emma
+ * @see Simulator
+ * @see GameEngine
+ */
+public interface MovePolicy {
+	
+	/**
+	 * Make the moves for the coming tick of the game
+	 * 
+	 * @param engine the game being played
+	 * @param random the generator of the policy for the game being played
+	 */
+	public void makeMoves(GameEngine engine, SplittableRandom random);
+}
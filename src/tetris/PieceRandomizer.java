@@ -0,0 +1,152 @@
+package tetris;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+
+/**
+ * Deals the types and colours of the shapes of a game. Types are dealt from shuffled bags holding
+ * one of each type, so every type comes up once in every ShapeType.count() shapes and there are
+ * never long droughts of a type or long runs of the same one. At least a full bag of upcoming types
+ * is kept queued, so the next few shapes can be previewed.
+ *
+ * All of the randomness of a game comes from the single SplittableRandom the randomizer is given,
+ * so a game created with a generator of the same seed deals the same shapes in the same colours.
+ * Parallel games should each be given a generator of their own, e.g. split from a common one, so
+ * that no generator is shared between threads.
+ *
+ * The queued types can be written to and read from a buffer, so that a saved game carries on
+ * with the shapes it would have had. The state of the generator itself cannot be saved.
+ *
+ * @author emma
+ * @see GameEngine
+ * @see ShapeType
+ */
+public class PieceRandomizer {
+
+	public static final int PREVIEW = ShapeType.count(); //number of upcoming types that can be previewed
+	public static final int SNAPSHOT_BYTES = 1 + (2*ShapeType.count()); //bytes written by writeTo(ByteBuffer)
+
+	private SplittableRandom iRandom; //the source of all randomness of the game
+	private final ShapeType[] iQueue = new ShapeType[2*ShapeType.count()]; //upcoming types, a ring of two bags
+	private int iHead = 0; //index in iQueue of the next type
+	private int iSize = 0; //number of types queued
+
+	/**
+	 * Creates a randomizer drawing from the given generator
+	 * @param random
+	 */
+	public PieceRandomizer(SplittableRandom random){
+		iRandom = random;
+		fill();
+	}
+
+	/**
+	 * Starts dealing afresh from the given generator, as a new randomizer would, reusing the queue
+	 * @param random
+	 */
+	public void reset(SplittableRandom random){
+		iRandom = random;
+		iHead = 0;
+		iSize = 0;
+		fill();
+	}
+
+	/**
+	 * Deals the type of the next shape
+	 */
+	public ShapeType next(){
+		ShapeType type = iQueue[iHead];
+		iHead = (iHead+1) % iQueue.length;
+		iSize--;
+		fill();
+		return type;
+	}
+
+	/**
+	 * Returns an upcoming type without dealing it
+	 * @param ahead 0 for the type next() will return, 1 for the one after, and so on up to PREVIEW-1
+	 */
+	public ShapeType peek(int ahead){
+		if(ahead<0 || ahead>=PREVIEW){
+			throw new IllegalArgumentException("Only " + PREVIEW + " types can be previewed, asked for " + ahead);
+		}
+		return iQueue[(iHead+ahead) % iQueue.length];
+	}
+
+	/**
+	 * Picks the colour of a shape
+	 */
+	public ValidColour nextColour(){
+		return ValidColour.fromIndex(iRandom.nextInt(ValidColour.count()));
+	}
+
+	/**
+	 * Returns the generator the randomizer draws from
+	 * @return iRandom
+	 */
+	public SplittableRandom getRandom(){
+		return iRandom;
+	}
+
+	/**
+	 * Writes the queued types to a buffer, in SNAPSHOT_BYTES bytes - the number queued followed
+	 * by the ordinal of each, in the order they will be dealt
+	 *
+	 * @param buffer
+	 * @see #readFrom(ByteBuffer)
+	 */
+	public void writeTo(ByteBuffer buffer){
+		buffer.put((byte)iSize);
+		for(int i=0; i<iQueue.length; i++){
+			buffer.put(i<iSize ? (byte)iQueue[(iHead+i) % iQueue.length].ordinal() : 0);
+		}
+	}
+
+	/**
+	 * Replaces the queued types with those written by writeTo(ByteBuffer)
+	 *
+	 * @param buffer
+	 * @throws IllegalArgumentException if the buffer does not hold a valid queue
+	 */
+	public void readFrom(ByteBuffer buffer){
+		int size = buffer.get();
+		if(size<PREVIEW || size>iQueue.length){
+			throw new IllegalArgumentException("Cannot queue " + size + " types");
+		}
+		for(int i=0; i<iQueue.length; i++){
+			int type = buffer.get();
+			if(i<size){
+				if(type<0 || type>=ShapeType.count()){
+					throw new IllegalArgumentException("Unknown shape type " + type);
+				}
+				iQueue[i] = ShapeType.fromIndex(type);
+			}
+		}
+		iHead = 0;
+		iSize = size;
+	}
+
+	/**
+	 * Queues a freshly shuffled bag whenever less than a full bag of types is queued
+	 */
+	private void fill(){
+		while(iSize<PREVIEW){
+			int bag = ShapeType.count();
+			int tail = (iHead+iSize) % iQueue.length;
+			for(int i=0; i<bag; i++){
+				iQueue[(tail+i) % iQueue.length] = ShapeType.fromIndex(i);
+			}
+			//Fisher-Yates shuffle of the new bag in place
+			for(int i=bag-1; i>0; i--){
+				int j = iRandom.nextInt(i+1);
+				int a = (tail+i) % iQueue.length;
+				int b = (tail+j) % iQueue.length;
+				ShapeType swap = iQueue[a];
+				iQueue[a] = iQueue[b];
+				iQueue[b] = swap;
+			}
+			iSize+=bag;
+		}
+	}
+}
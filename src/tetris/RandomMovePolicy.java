@@ -0,0 +1,35 @@
+package tetris;
+
+import java.util.SplittableRandom;
+
+
+/**
+ * MovePolicy that makes a single random move each tick - left, right, rotate, hard drop
+ * or nothing at all.
+ * 
+ * @author emma
+ * @see MovePolicy
+ */
+public class RandomMovePolicy implements MovePolicy {
+
+	@Override
+	public void makeMoves(GameEngine engine, SplittableRandom random) {
+		switch(random.nextInt(6)){
+		case 0:
+			engine.moveLeft();
+			break;
+		case 1:
+			engine.moveRight();
+			break;
+		case 2:
+			engine.rotate();
+			break;
+		case 3:
+			engine.hardDrop();
+			break;
+		default:
+			//let the shape fall
+			break;
+		}
+	}
+}
@@ -0,0 +1,224 @@
+package tetris;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+
+/**
+ * A recorded game, read from a file written by a ReplayRecorder - the seed of the game's generator
+ * and the moves made, each with the gravity tick it was made after.
+ *
+ * A replay plays the game again as a MovePolicy: before every tick it makes the moves recorded
+ * after the previous tick. Which moves those are is found from the tick count of the engine, so a
+ * replay keeps no state of its own and the same replay can be played any number of times, either
+ * headless at full speed with play() or in real time by setting it as the auto player of a GameLoop.
+ *
+ * Immutable.
+ *
+ * @author emma
+ * @see ReplayRecorder
+ * @see MovePolicy
+ */
+public class Replay implements MovePolicy {
+
+	private final long iSeed; //seed of the generator of the game
+	private final long[] iTicks; //tick each move was made after, in order
+	private final GameInput[] iInputs; //the moves
+	private final long iEndTick; //tick the recording ended at, or -1 if it was not ended
+
+	/**
+	 * Creates a replay from the contents of a recording
+	 */
+	private Replay(long seed, long[] ticks, GameInput[] inputs, long endTick){
+		iSeed = seed;
+		iTicks = ticks;
+		iInputs = inputs;
+		iEndTick = endTick;
+	}
+
+	/**
+	 * Reads a recording. A recording that was not ended - e.g. because the game was still going
+	 * when the program stopped - ends after its last move.
+	 *
+	 * @param file
+	 * @throws IOException if the file cannot be read or is not a recording
+	 */
+	public static Replay read(Path file) throws IOException {
+		ByteBuffer buffer;
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+			buffer = ByteBuffer.allocate((int)channel.size());
+			while(buffer.hasRemaining() && channel.read(buffer)>=0){
+				//keep reading until the whole file is in the buffer
+			}
+		}
+		buffer.flip();
+		if(buffer.remaining()<13 || buffer.getInt()!=ReplayRecorder.MAGIC){
+			throw new IOException(file + " is not a recording");
+		}
+		byte version = buffer.get();
+		if(version!=ReplayRecorder.VERSION){
+			throw new IOException(file + " is recorded in version " + version + ", only version " + ReplayRecorder.VERSION + " can be read");
+		}
+		long seed = buffer.getLong();
+		long[] ticks = new long[64];
+		GameInput[] inputs = new GameInput[64];
+		int count = 0;
+		long tick = 0;
+		long endTick = -1;
+		while(buffer.hasRemaining()){
+			long record = getVarint(buffer);
+			tick+=record >>> ReplayRecorder.CODE_BITS;
+			int code = (int)(record & ((1<<ReplayRecorder.CODE_BITS)-1));
+			if(code==ReplayRecorder.END){
+				endTick = tick;
+				break;
+			}
+			if(code>=GameInput.values().length){
+				throw new IOException(file + " has an unknown move " + code);
+			}
+			if(count==ticks.length){
+				ticks = Arrays.copyOf(ticks, count*2);
+				inputs = Arrays.copyOf(inputs, count*2);
+			}
+			ticks[count] = tick;
+			inputs[count++] = GameInput.values()[code];
+		}
+		return new Replay(seed, Arrays.copyOf(ticks, count), Arrays.copyOf(inputs, count), endTick);
+	}
+
+	/**
+	 * Reads an unsigned varint written by ReplayRecorder.putVarint
+	 *
+	 * @param buffer
+	 * @throws IOException if the buffer ends part way through the varint
+	 */
+	static long getVarint(ByteBuffer buffer) throws IOException {
+		long value = 0;
+		for(int shift=0; shift<64; shift+=7){
+			if(!buffer.hasRemaining()){
+				throw new IOException("The recording ends part way through a move");
+			}
+			byte b = buffer.get();
+			value |= (long)(b & 0x7F) << shift;
+			if((b & 0x80)==0){
+				return value;
+			}
+		}
+		throw new IOException("The recording has a malformed move");
+	}
+
+	/**
+	 * Creates a new game to play the replay in, with the recorded seed
+	 */
+	public GameEngine createEngine(){
+		return new GameEngine(iSeed);
+	}
+
+	/**
+	 * Resets a game in place to the start of the replay, with the recorded seed, so that
+	 * the replay plays again from the beginning
+	 * @param engine
+	 * @see GameEngine#reset(SplittableRandom)
+	 */
+	public void restart(GameEngine engine){
+		engine.reset(new SplittableRandom(iSeed));
+	}
+
+	/**
+	 * Plays the replay in a new game as fast as possible, without a display, until it ends
+	 * or the game is over
+	 *
+	 * @return the game played
+	 */
+	public GameEngine play(){
+		GameEngine engine = createEngine();
+		long lastTick = getLastTick();
+		while(!engine.isGameOver()){
+			makeMoves(engine, null);
+			if(engine.getTickCount()>=lastTick){
+				break;
+			}
+			engine.step();
+		}
+		return engine;
+	}
+
+	/**
+	 * Returns the tick the replay ends at - the tick the recording was ended at, or else the tick
+	 * of the last move
+	 */
+	public long getLastTick(){
+		if(iEndTick>=0){
+			return iEndTick;
+		}
+		return iTicks.length==0 ? 0 : iTicks[iTicks.length-1];
+	}
+
+	/**
+	 * Makes the moves recorded after the engine's current tick
+	 * @see MovePolicy#makeMoves(GameEngine, SplittableRandom)
+	 */
+	@Override
+	public void makeMoves(GameEngine engine, SplittableRandom random){
+		long tick = engine.getTickCount();
+		int i = Arrays.binarySearch(iTicks, tick);
+		if(i<0){
+			return;
+		}
+		while(i>0 && iTicks[i-1]==tick){
+			i--;
+		}
+		for(; i<iTicks.length && iTicks[i]==tick; i++){
+			iInputs[i].apply(engine);
+		}
+	}
+
+	/**
+	 * Returns the seed of the generator of the game
+	 * @return iSeed
+	 */
+	public long getSeed(){
+		return iSeed;
+	}
+
+	/**
+	 * Returns the number of moves recorded
+	 */
+	public int getMoveCount(){
+		return iInputs.length;
+	}
+
+	/**
+	 * Returns the tick the recording was ended at, or -1 if it was not ended
+	 * @return iEndTick
+	 */
+	public long getEndTick(){
+		return iEndTick;
+	}
+
+	/**
+	 * Plays recordings headless at full speed and prints how each game ended and how fast it was
+	 * played, e.g. to check the engine against a collection of recorded games.
+	 * Arguments: recording...
+	 *
+	 * @param args
+	 * @throws IOException
+	 */
+	public static void main(String args[]) throws IOException {
+		for(String name : args){
+			Replay replay = read(java.nio.file.Paths.get(name));
+			long start = System.nanoTime();
+			GameEngine engine = replay.play();
+			long elapsed = System.nanoTime() - start;
+			System.out.println(name + ": Seed: " + replay.getSeed() + " Moves: " + replay.getMoveCount()
+					+ " Ticks: " + engine.getTickCount() + " Lines: " + engine.getLineCount() + " Score: " + engine.getScore()
+					+ " Game over: " + engine.isGameOver()
+					+ " Ticks per second: " + (engine.getTickCount()*1000000000.0/elapsed));
+		}
+	}
+}
@@ -0,0 +1,151 @@
+package tetris;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Records a game as the seed of its generator followed by the moves made, each stamped with the
+ * gravity tick it was made after, so that the game can be played again exactly by a Replay.
+ *
+ * The format is compact: after a header of the magic number, the format version and the seed, every
+ * move is a single varint (7 bits per byte, low bits first) holding the number of ticks since the
+ * previous move shifted left by three bits, with the GameInput in the low three bits. Most moves take
+ * one or two bytes. The recording ends with the END code stamped with the final tick. Moves are
+ * gathered in a buffer and written to the file channel when it fills up, so recording does not write
+ * to the file for every move.
+ *
+ * Not thread safe - a recorder should only be used by the thread running the game.
+ *
+ * @author emma
+ * @see Replay
+ * @see GameLoop#setRecorder(ReplayRecorder)
+ */
+public class ReplayRecorder implements Closeable {
+
+	public static final int MAGIC = 0x54545250; //"TTRP"
+	public static final byte VERSION = 1; //version of the format written
+	public static final int END = 7; //code of the record ending a recording
+	static final int CODE_BITS = 3; //bits of a record holding the GameInput or END
+
+	private static final int BUFFER_SIZE = 8192; //bytes gathered before they are written
+	private static final int MAX_VARINT_BYTES = 10; //most bytes a varint of a long takes
+
+	private final FileChannel iChannel; //the file being recorded to
+	private final ByteBuffer iBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE); //moves not written yet
+	private long iLastTick = 0; //tick of the previous move
+	private boolean iClosed = false;
+
+	/**
+	 * Creates, or replaces, a recording of a game whose generator has the given seed
+	 *
+	 * @param file
+	 * @param seed
+	 * @throws IOException
+	 */
+	public ReplayRecorder(Path file, long seed) throws IOException {
+		iChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+		iBuffer.putInt(MAGIC);
+		iBuffer.put(VERSION);
+		iBuffer.putLong(seed);
+	}
+
+	/**
+	 * Records a move, made after the given number of gravity ticks
+	 *
+	 * @param tick the tick count of the engine when the move was made
+	 * @param input
+	 * @throws IOException
+	 */
+	public void record(long tick, GameInput input) throws IOException {
+		write(tick, input.ordinal());
+	}
+
+	/**
+	 * Ends the recording at the given tick and closes the file. Does nothing if already closed.
+	 *
+	 * @param tick the tick count of the engine when the game ended
+	 * @throws IOException
+	 */
+	public void close(long tick) throws IOException {
+		if(iClosed){
+			return;
+		}
+		try{
+			write(tick, END);
+			flush();
+		}
+		finally{
+			iClosed = true;
+			iChannel.close();
+		}
+	}
+
+	/**
+	 * Closes the file without ending the recording; a replay of it ends after the last move.
+	 * Does nothing if already closed.
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		if(iClosed){
+			return;
+		}
+		try{
+			flush();
+		}
+		finally{
+			iClosed = true;
+			iChannel.close();
+		}
+	}
+
+	/**
+	 * Adds a record to the buffer, writing the buffer out first if it may not have room for it
+	 *
+	 * @param tick
+	 * @param code
+	 * @throws IOException
+	 */
+	private void write(long tick, int code) throws IOException {
+		if(iClosed){
+			throw new IOException("The recording has been closed");
+		}
+		if(iBuffer.remaining()<MAX_VARINT_BYTES){
+			flush();
+		}
+		putVarint(iBuffer, ((tick-iLastTick) << CODE_BITS) | code);
+		iLastTick = tick;
+	}
+
+	/**
+	 * Writes out everything in the buffer
+	 * @throws IOException
+	 */
+	private void flush() throws IOException {
+		iBuffer.flip();
+		while(iBuffer.hasRemaining()){
+			iChannel.write(iBuffer);
+		}
+		iBuffer.clear();
+	}
+
+	/**
+	 * Puts an unsigned varint into a buffer, 7 bits per byte starting from the lowest bits, the top
+	 * bit of each byte being set when more bytes follow
+	 *
+	 * @param buffer
+	 * @param value
+	 */
+	static void putVarint(ByteBuffer buffer, long value){
+		while((value & ~0x7FL)!=0){
+			buffer.put((byte)((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte)value);
+	}
+}
@@ -0,0 +1,108 @@
+package tetris;
+
+
+/**
+ * Recycles ComplexShapes so that spawning a shape does not allocate. Once a shape has settled its
+ * blocks are copied onto the Board as primitives, so the shape itself can be released back to the
+ * pool and reset as the next shape to spawn. A game therefore allocates its shapes while the pool
+ * warms up and none after that, however long it is played.
+ *
+ * Acquisitions that were served from the pool and those that had to allocate a new shape are
+ * counted, so the steady state can be checked.
+ *
+ * Not thread safe - each game has a pool of its own, used on the thread the game is played on.
+ *
+ * @author emma
+ * @see ComplexShape#reset(ShapeType, ValidColour)
+ * @see GameEngine
+ */
+public class ShapePool {
+
+	public static final int DEFAULT_CAPACITY = 2; //shapes kept by default, the active shape and one spare
+
+	private final ComplexShape[] iFree; //shapes ready to be reused, a stack
+	private int iFreeCount = 0; //number of shapes in iFree
+	private long iHits = 0; //acquisitions that reused a shape
+	private long iMisses = 0; //acquisitions that allocated a shape
+	private long iDiscards = 0; //releases dropped because the pool was full
+
+	/**
+	 * Creates a pool keeping up to DEFAULT_CAPACITY free shapes
+	 */
+	public ShapePool(){
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a pool keeping up to capacity free shapes
+	 * @param capacity
+	 */
+	public ShapePool(int capacity){
+		if(capacity<1){
+			throw new IllegalArgumentException("The capacity must be at least 1, was " + capacity);
+		}
+		iFree = new ComplexShape[capacity];
+	}
+
+	/**
+	 * Returns a new active shape of the given type and colour at the top of the screen, reusing a
+	 * released shape if there is one
+	 *
+	 * @param type
+	 * @param colour
+	 */
+	public ComplexShape acquire(ShapeType type, ValidColour colour){
+		if(iFreeCount==0){
+			iMisses++;
+			return new ComplexShape(type, colour);
+		}
+		iHits++;
+		ComplexShape shape = iFree[--iFreeCount];
+		iFree[iFreeCount] = null;
+		shape.reset(type, colour);
+		return shape;
+	}
+
+	/**
+	 * Gives a shape that is no longer used back to the pool. The shape must not be used by
+	 * the caller afterwards, as it will be reset when it is next acquired.
+	 *
+	 * @param shape
+	 */
+	public void release(ComplexShape shape){
+		if(iFreeCount==iFree.length){
+			iDiscards++;
+			return;
+		}
+		iFree[iFreeCount++] = shape;
+	}
+
+	/**
+	 * Returns the number of acquisitions that reused a shape
+	 * @return iHits
+	 */
+	public long getHits(){
+		return iHits;
+	}
+
+	/**
+	 * Returns the number of acquisitions that allocated a new shape
+	 * @return iMisses
+	 */
+	public long getMisses(){
+		return iMisses;
+	}
+
+	/**
+	 * Returns the number of released shapes dropped because the pool was full
+	 * @return iDiscards
+	 */
+	public long getDiscards(){
+		return iDiscards;
+	}
+
+	@Override
+	public String toString(){
+		return "Free: " + iFreeCount + " Hits: " + iHits + " Misses: " + iMisses + " Discards: " + iDiscards;
+	}
+}
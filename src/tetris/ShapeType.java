@@ -0,0 +1,395 @@
+package tetris;
+
+import java.util.Arrays;
+
+/**
+ * Table of every type of ComplexShape. Each type lists its orientations, in the order they are
+ * rotated through, drawn within a fixed frame (2x2, 3x3 or 4x4 cells) so that rotating a shape
+ * only means picking the next orientation - the position of the frame on the board stays the same.
+ * Adding a new type of shape is a matter of adding an entry to this table.
+ *
+ * Orientations are precomputed into the cells of their blocks, their bounding box within the frame
+ * and a bitmask per row of the frame in the same format as the rows of the Board, so that a shape
+ * can be tested against the board with a shift and an AND per row.
+ *
+ * @author emma
+ * @see ComplexShape
+ * @see Board
+ */
+public enum ShapeType {
+	CUBE(6, 0,
+		new String[]{
+			"[X][X]",
+			"[X][X]"}),
+	LINE(5, -1,
+		new String[]{
+			"[ ][X][ ][ ]",
+			"[ ][X][ ][ ]",
+			"[ ][X][ ][ ]",
+			"[ ][X][ ][ ]"},
+		new String[]{
+			"[ ][ ][ ][ ]",
+			"[ ][ ][ ][ ]",
+			"[X][X][X][X]",
+			"[ ][ ][ ][ ]"}),
+	L_SHAPE(5, 0,
+		new String[]{
+			"[ ][X][ ]",
+			"[ ][X][ ]",
+			"[ ][X][X]"},
+		new String[]{
+			"[ ][ ][X]",
+			"[X][X][X]",
+			"[ ][ ][ ]"},
+		new String[]{
+			"[X][X][ ]",
+			"[ ][X][ ]",
+			"[ ][X][ ]"},
+		new String[]{
+			"[ ][ ][ ]",
+			"[X][X][X]",
+			"[X][ ][ ]"}),
+	T_SHAPE(5, 0,
+		new String[]{
+			"[ ][X][ ]",
+			"[X][X][X]",
+			"[ ][ ][ ]"},
+		new String[]{
+			"[ ][X][ ]",
+			"[X][X][ ]",
+			"[ ][X][ ]"},
+		new String[]{
+			"[ ][ ][ ]",
+			"[X][X][X]",
+			"[ ][X][ ]"},
+		new String[]{
+			"[ ][X][ ]",
+			"[ ][X][X]",
+			"[ ][X][ ]"}),
+	S_SHAPE(5, 0,
+		new String[]{
+			"[ ][X][X]",
+			"[X][X][ ]",
+			"[ ][ ][ ]"},
+		new String[]{
+			"[X][ ][ ]",
+			"[X][X][ ]",
+			"[ ][X][ ]"},
+		new String[]{
+			"[ ][ ][ ]",
+			"[ ][X][X]",
+			"[X][X][ ]"},
+		new String[]{
+			"[ ][X][ ]",
+			"[ ][X][X]",
+			"[ ][ ][X]"}),
+	Z_SHAPE(5, 0,
+		new String[]{
+			"[X][X][ ]",
+			"[ ][X][X]",
+			"[ ][ ][ ]"},
+		new String[]{
+			"[ ][X][ ]",
+			"[X][X][ ]",
+			"[X][ ][ ]"},
+		new String[]{
+			"[ ][ ][ ]",
+			"[X][X][ ]",
+			"[ ][X][X]"},
+		new String[]{
+			"[ ][ ][X]",
+			"[ ][X][X]",
+			"[ ][X][ ]"}),
+	J_SHAPE(5, 0,
+		new String[]{
+			"[ ][X][ ]",
+			"[ ][X][ ]",
+			"[X][X][ ]"},
+		new String[]{
+			"[ ][ ][ ]",
+			"[X][X][X]",
+			"[ ][ ][X]"},
+		new String[]{
+			"[ ][X][X]",
+			"[ ][X][ ]",
+			"[ ][X][ ]"},
+		new String[]{
+			"[X][ ][ ]",
+			"[X][X][X]",
+			"[ ][ ][ ]"});
+
+	private static final ShapeType[] VALUES = values(); //every type, indexed by ordinal
+
+	private final int iSpawnX; //standard x coordinate of the frame when a shape is created
+	private final int iSpawnY; //standard y coordinate of the frame when a shape is created
+	private final Orientation[] iOrientations; //in order of anticlockwise rotation
+
+	/**
+	 * Default constructor
+	 * @param spawnX
+	 * @param spawnY
+	 * @param orientations the rows of each orientation, drawn the same way as the diagrams in comments
+	 */
+	ShapeType(int spawnX, int spawnY, String[]... orientations){
+		iSpawnX = spawnX;
+		iSpawnY = spawnY;
+		iOrientations = new Orientation[orientations.length];
+		for(int i=0; i<orientations.length; i++){
+			iOrientations[i] = new Orientation(orientations[i]);
+		}
+	}
+
+	/**
+	 * Returns the standard x coordinate of the frame of a newly created shape
+	 * @return iSpawnX
+	 */
+	public int getSpawnX(){
+		return iSpawnX;
+	}
+
+	/**
+	 * Returns the standard y coordinate of the frame of a newly created shape
+	 * @return iSpawnY
+	 */
+	public int getSpawnY(){
+		return iSpawnY;
+	}
+
+	/**
+	 * Returns the number of orientations the shape rotates through
+	 */
+	public int getOrientationCount(){
+		return iOrientations.length;
+	}
+
+	/**
+	 * Returns an orientation of the shape
+	 * @param index
+	 * @return iOrientations[index]
+	 */
+	public Orientation getOrientation(int index){
+		return iOrientations[index];
+	}
+
+	/**
+	 * Returns the index of the orientation following the given one when rotating
+	 * @param index
+	 */
+	public int nextOrientation(int index){
+		int next = index + 1;
+		return next==iOrientations.length ? 0 : next;
+	}
+
+	/**
+	 * Static method for getting the ShapeType with the specified ordinal
+	 * @param index
+	 */
+	public static ShapeType fromIndex(int index){
+		return VALUES[index];
+	}
+
+	/**
+	 * Returns the number of types of shape
+	 */
+	public static int count(){
+		return VALUES.length;
+	}
+
+	/**
+	 * One orientation of a shape - the cells of its four blocks within the frame of the shape,
+	 * their bounding box, a bitmask of the cells in each row of the frame and the lowest cell
+	 * in each column of the frame. Also records which blocks are on the left, right and bottom
+	 * edges of the shape and which are at the extremes of the bounding box, so that a shape can
+	 * answer those queries without comparing its blocks. Immutable.
+	 */
+	public static final class Orientation {
+
+		private final int[] iCellX = new int[4]; //x coordinate within the frame of each block
+		private final int[] iCellY = new int[4]; //y coordinate within the frame of each block
+		private final int[] iRowMasks; //bit x is set when column x of the row is a cell
+		private final int[] iBottoms; //y coordinate of the lowest cell in each column, -1 if none
+		private int iMinX = Integer.MAX_VALUE;
+		private int iMaxX = -1;
+		private int iMinY = Integer.MAX_VALUE;
+		private int iMaxY = -1;
+		private int iLeftBlocks; //bit i is set when no block in the row of block i is to its left
+		private int iRightBlocks; //bit i is set when no block in the row of block i is to its right
+		private int iBottomBlocks; //bit i is set when no block in the column of block i is below it
+		private int iMaxYBlock = -1; //index of the first block with the greatest y coordinate
+		private int iMaxXBlock = -1; //index of the first block with the greatest x coordinate
+		private int iMinXBlock = -1; //index of the last block with the smallest x coordinate
+
+		/**
+		 * Parses the rows of an orientation, each cell written as [X] or [ ]
+		 * @param rows
+		 */
+		Orientation(String[] rows){
+			iRowMasks = new int[rows.length];
+			iBottoms = new int[rows.length];
+			Arrays.fill(iBottoms, -1);
+			int block = 0;
+			for(int y=0; y<rows.length; y++){
+				for(int x=0; x*3<rows[y].length(); x++){
+					if(rows[y].charAt((x*3)+1)=='X'){
+						iCellX[block] = x;
+						iCellY[block] = y;
+						block++;
+						iRowMasks[y] |= 1<<x;
+						iBottoms[x] = y;
+						iMinX = Math.min(iMinX, x);
+						iMaxX = Math.max(iMaxX, x);
+						iMinY = Math.min(iMinY, y);
+						iMaxY = Math.max(iMaxY, y);
+					}
+				}
+			}
+			if(block!=4){
+				throw new IllegalArgumentException("An orientation must have 4 blocks, found " + block);
+			}
+			for(int i=0; i<4; i++){
+				boolean isLeft = true;
+				boolean isRight = true;
+				boolean isBottom = true;
+				for(int j=0; j<4; j++){
+					if(iCellY[j]==iCellY[i] && iCellX[j]<iCellX[i]){
+						isLeft = false;
+					}
+					if(iCellY[j]==iCellY[i] && iCellX[j]>iCellX[i]){
+						isRight = false;
+					}
+					if(iCellX[j]==iCellX[i] && iCellY[j]>iCellY[i]){
+						isBottom = false;
+					}
+				}
+				iLeftBlocks |= isLeft ? 1<<i : 0;
+				iRightBlocks |= isRight ? 1<<i : 0;
+				iBottomBlocks |= isBottom ? 1<<i : 0;
+				if(iMaxYBlock<0 || iCellY[i]>iCellY[iMaxYBlock]){
+					iMaxYBlock = i;
+				}
+				if(iMaxXBlock<0 || iCellX[i]>iCellX[iMaxXBlock]){
+					iMaxXBlock = i;
+				}
+				if(iMinXBlock<0 || iCellX[i]<=iCellX[iMinXBlock]){
+					iMinXBlock = i;
+				}
+			}
+		}
+
+		/**
+		 * Returns the x coordinate within the frame of a block
+		 * @param block
+		 */
+		public int getCellX(int block){
+			return iCellX[block];
+		}
+
+		/**
+		 * Returns the y coordinate within the frame of a block
+		 * @param block
+		 */
+		public int getCellY(int block){
+			return iCellY[block];
+		}
+
+		/**
+		 * Returns the bitmask of a row of the frame, shifted as if the frame were at
+		 * standard x coordinate x on the board
+		 * @param y row within the frame
+		 * @param x
+		 */
+		public int getRowMask(int y, int x){
+			return x>=0 ? iRowMasks[y]<<x : iRowMasks[y]>>>-x;
+		}
+
+		/**
+		 * Returns the y coordinate of the lowest cell in a column of the frame, or -1 if the
+		 * column has no cells
+		 * @param x column within the frame
+		 * @return iBottoms[x]
+		 */
+		public int getBottom(int x){
+			return iBottoms[x];
+		}
+
+		/**
+		 * Returns true if no block in the same row is to the left of a block
+		 * @param block
+		 */
+		public boolean isLeftBlock(int block){
+			return (iLeftBlocks & (1<<block))!=0;
+		}
+
+		/**
+		 * Returns true if no block in the same row is to the right of a block
+		 * @param block
+		 */
+		public boolean isRightBlock(int block){
+			return (iRightBlocks & (1<<block))!=0;
+		}
+
+		/**
+		 * Returns true if no block in the same column is below a block
+		 * @param block
+		 */
+		public boolean isBottomBlock(int block){
+			return (iBottomBlocks & (1<<block))!=0;
+		}
+
+		/**
+		 * Returns the index of the first block with the greatest y coordinate
+		 * @return iMaxYBlock
+		 */
+		public int getMaxYBlock(){
+			return iMaxYBlock;
+		}
+
+		/**
+		 * Returns the index of the first block with the greatest x coordinate
+		 * @return iMaxXBlock
+		 */
+		public int getMaxXBlock(){
+			return iMaxXBlock;
+		}
+
+		/**
+		 * Returns the index of the last block with the smallest x coordinate
+		 * @return iMinXBlock
+		 */
+		public int getMinXBlock(){
+			return iMinXBlock;
+		}
+
+		/**
+		 * Returns the smallest x coordinate of a block within the frame
+		 * @return iMinX
+		 */
+		public int getMinX(){
+			return iMinX;
+		}
+
+		/**
+		 * Returns the largest x coordinate of a block within the frame
+		 * @return iMaxX
+		 */
+		public int getMaxX(){
+			return iMaxX;
+		}
+
+		/**
+		 * Returns the smallest y coordinate of a block within the frame
+		 * @return iMinY
+		 */
+		public int getMinY(){
+			return iMinY;
+		}
+
+		/**
+		 * Returns the largest y coordinate of a block within the frame
+		 * @return iMaxY
+		 */
+		public int getMaxY(){
+			return iMaxY;
+		}
+	}
+}
@@ -1,5 +1,8 @@
+package tetris;
+
 import java.awt.Dimension;
 import java.awt.GridLayout;
+import java.awt.event.ActionListener;
 
 import javax.swing.JButton;
 import javax.swing.JLabel;
@@ -32,14 +35,28 @@ public class Sidebar extends JPanel{
 		this.add(iLScore);
 	}
 	
+	/**
+	 * Adds a listener told when the new game button is pressed
+	 * @param listener
+	 */
+	public void addNewGameListener(ActionListener listener){
+		iBNewGame.addActionListener(listener);
+	}
+	
+	/**
+	 * Adds a listener told when the save game button is pressed
+	 * @param listener
+	 */
+	public void addSaveGameListener(ActionListener listener){
+		iBSaveGame.addActionListener(listener);
+	}
+	
 	/**
 	 * Updates the level based on the current score
 	 */
 	public void setLevel(){
-		if(iLevel<=12){
-			iLevel = (int)iScore/50;
-			iLLevel.setText("Level: " + iLevel);
-		}
+		iLevel = GameEngine.levelForScore(iLevel, iScore);
+		iLLevel.setText("Level: " + iLevel);
 	}
 	
 	/**
@@ -52,6 +69,14 @@ public class Sidebar extends JPanel{
 		setLevel();
 	}
 	
+	/**
+	 * Sets the score and level back to 0 for a new game
+	 */
+	public void reset(){
+		iLevel = 0;
+		setScore(0);
+	}
+	
 	/**
 	 * Returns the level
 	 * @return iLevel
@@ -0,0 +1,144 @@
+package tetris;
+
+/**
+ * Aggregate statistics of a batch of simulated games - the number of games, lines cleared,
+ * shapes played, ticks and the number of games finishing at each level. Each Simulator task
+ * fills in its own result and the results are merged once the tasks are done, so a result is
+ * never shared between threads while it is being updated.
+ * 
+ * @author emma
+ * @see Simulator
+ */
+public class SimulationResult {
+	
+	private int iGames = 0; //the number of games played
+	private int iUnfinishedGames = 0; //the number of games stopped at the tick limit before game over
+	private long iTotalLines = 0; //lines cleared over all games
+	private int iMaxLines = 0; //the most lines cleared in a single game
+	private long iTotalPieces = 0; //shapes played over all games
+	private long iTotalTicks = 0; //gravity ticks over all games
+	private int[] iLevelCounts = new int[GameEngine.MAX_LEVEL+2]; //number of games finishing at each level
+	
+	/**
+	 * Adds the statistics of a finished (or stopped) game
+	 * 
+	 * @param engine
+	 * @param ticks the number of ticks the game was played for
+	 */
+	public void addGame(GameEngine engine, int ticks){
+		iGames++;
+		if(!engine.isGameOver()){
+			iUnfinishedGames++;
+		}
+		iTotalLines+=engine.getLineCount();
+		iMaxLines = Math.max(iMaxLines, engine.getLineCount());
+		iTotalPieces+=engine.getPieceCount();
+		iTotalTicks+=ticks;
+		iLevelCounts[engine.getLevel()]++;
+	}
+	
+	/**
+	 * Adds the statistics of another result to this one
+	 * 
+	 * @param other
+	 * @return this
+	 */
+	public SimulationResult merge(SimulationResult other){
+		iGames+=other.iGames;
+		iUnfinishedGames+=other.iUnfinishedGames;
+		iTotalLines+=other.iTotalLines;
+		iMaxLines = Math.max(iMaxLines, other.iMaxLines);
+		iTotalPieces+=other.iTotalPieces;
+		iTotalTicks+=other.iTotalTicks;
+		for(int i=0; i<iLevelCounts.length; i++){
+			iLevelCounts[i]+=other.iLevelCounts[i];
+		}
+		return this;
+	}
+	
+	/**
+	 * Returns the number of games played
+	 * @return iGames
+	 */
+	public int getGames(){
+		return iGames;
+	}
+	
+	/**
+	 * Returns the number of games stopped at the tick limit before the game was over
+	 * @return iUnfinishedGames
+	 */
+	public int getUnfinishedGames(){
+		return iUnfinishedGames;
+	}
+	
+	/**
+	 * Returns the number of lines cleared over all games
+	 * @return iTotalLines
+	 */
+	public long getTotalLines(){
+		return iTotalLines;
+	}
+	
+	/**
+	 * Returns the most lines cleared in a single game
+	 * @return iMaxLines
+	 */
+	public int getMaxLines(){
+		return iMaxLines;
+	}
+	
+	/**
+	 * Returns the number of shapes played over all games
+	 * @return iTotalPieces
+	 */
+	public long getTotalPieces(){
+		return iTotalPieces;
+	}
+	
+	/**
+	 * Returns the number of gravity ticks over all games
+	 * @return iTotalTicks
+	 */
+	public long getTotalTicks(){
+		return iTotalTicks;
+	}
+	
+	/**
+	 * Returns the number of games that finished at a level
+	 * @param level
+	 */
+	public int getLevelCount(int level){
+		return iLevelCounts[level];
+	}
+	
+	/**
+	 * Returns the highest level reached in any game
+	 */
+	public int getMaxLevel(){
+		for(int i=iLevelCounts.length-1; i>0; i--){
+			if(iLevelCounts[i]>0){
+				return i;
+			}
+		}
+		return 0;
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString(){
+		StringBuilder builder = new StringBuilder();
+		builder.append("Games: ").append(iGames)
+			.append(" (").append(iUnfinishedGames).append(" stopped at tick limit)\n");
+		builder.append("Lines: ").append(iTotalLines).append(" total, ")
+			.append(iGames==0 ? 0 : (double)iTotalLines/iGames).append(" mean, ")
+			.append(iMaxLines).append(" max\n");
+		builder.append("Pieces: ").append(iTotalPieces).append(" Ticks: ").append(iTotalTicks).append('\n');
+		builder.append("Levels reached:");
+		for(int i=0; i<=getMaxLevel(); i++){
+			builder.append(' ').append(i).append('=').append(iLevelCounts[i]);
+		}
+		return builder.toString();
+	}
+}
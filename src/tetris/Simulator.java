@@ -0,0 +1,230 @@
+package tetris;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+
+/**
+ * Plays batches of independent headless games on a ForkJoinPool and aggregates their statistics.
+ * Each game has its own GameEngine and generators, derived from the seed of the batch and the index
+ * of the game, so a batch is reproducible regardless of how the games are spread over the threads
+ * and no mutable state is shared between games.
+ * 
+ * The shapes of a game depend only on its seed, so different MovePolicies simulated with the same
+ * seed are played against the same sequence of shapes.
+ * 
+ * @author emma
+ * @see GameEngine
+ * @see MovePolicy
+ * @see SimulationResult
+ */
+public class Simulator {
+	
+	public static final int DEFAULT_MAX_TICKS = 100000; //ticks after which a game is stopped if not over
+	private static final int GAMES_PER_TASK = 4; //games below which a task is no longer split
+	private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L; //spreads the seeds of neighbouring games
+	
+	private final ForkJoinPool iPool; //the pool the games are played on
+	private final MovePolicy iPolicy; //the policy used by every game
+	private final int iMaxTicks; //the tick limit of each game
+	
+	/**
+	 * Creates a simulator using all available processors
+	 * 
+	 * @param policy
+	 * @param maxTicks
+	 */
+	public Simulator(MovePolicy policy, int maxTicks){
+		this(policy, maxTicks, Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Creates a simulator using the given number of threads
+	 * 
+	 * @param policy
+	 * @param maxTicks
+	 * @param parallelism
+	 */
+	public Simulator(MovePolicy policy, int maxTicks, int parallelism){
+		iPolicy = policy;
+		iMaxTicks = maxTicks;
+		iPool = new ForkJoinPool(parallelism);
+	}
+	
+	/**
+	 * Plays a batch of games and returns their combined statistics
+	 * 
+	 * @param games the number of games to play
+	 * @param seed the seed of the batch
+	 * @return result
+	 */
+	public SimulationResult simulate(int games, long seed){
+		return iPool.invoke(new SimulationTask(seed, 0, games));
+	}
+	
+	/**
+	 * Plays a single game until it is over or the tick limit is reached, adding
+	 * its statistics to the result.
+	 * 
+	 * @param seed the seed of the batch
+	 * @param game the index of the game in the batch
+	 * @param result
+	 */
+	private void playGame(long seed, int game, SimulationResult result){
+		long gameSeed = gameSeed(seed, game);
+		GameEngine engine = new GameEngine(gameSeed);
+		SplittableRandom policyRandom = new SplittableRandom(~gameSeed);
+		int ticks = 0;
+		while(ticks<iMaxTicks && !engine.isGameOver()){
+			iPolicy.makeMoves(engine, policyRandom);
+			engine.step();
+			ticks++;
+		}
+		result.addGame(engine, ticks);
+	}
+	
+	/**
+	 * Returns the seed of a game of a batch. Seeds a fixed increment apart would give generators
+	 * whose sequences are the same but shifted, so the seed is the output of a generator seeded
+	 * with the increment rather than the increment itself.
+	 * 
+	 * @param seed the seed of the batch
+	 * @param game the index of the game in the batch
+	 */
+	public static long gameSeed(long seed, int game){
+		return new SplittableRandom(seed + (game*SEED_INCREMENT)).nextLong();
+	}
+	
+	/**
+	 * Stops the threads of the pool once the simulator is no longer needed
+	 */
+	public void shutdown(){
+		iPool.shutdown();
+	}
+	
+	/**
+	 * Task playing the games with indexes from iFrom (inclusive) to iTo (exclusive), splitting
+	 * itself in half until few enough games remain.
+	 */
+	private class SimulationTask extends RecursiveTask<SimulationResult> {
+		
+		private final long iSeed;
+		private final int iFrom;
+		private final int iTo;
+		
+		SimulationTask(long seed, int from, int to){
+			iSeed = seed;
+			iFrom = from;
+			iTo = to;
+		}
+		
+		@Override
+		protected SimulationResult compute() {
+			if(iTo-iFrom<=GAMES_PER_TASK){
+				SimulationResult result = new SimulationResult();
+				for(int i=iFrom; i<iTo; i++){
+					playGame(iSeed, i, result);
+				}
+				return result;
+			}
+			int middle = (iFrom+iTo) >>> 1;
+			SimulationTask lower = new SimulationTask(iSeed, iFrom, middle);
+			lower.fork();
+			SimulationResult upper = new SimulationTask(iSeed, middle, iTo).compute();
+			return lower.join().merge(upper);
+		}
+	}
+	
+	/**
+	 * MovePolicy playing each game with the AutoPlayer of the thread the game is played on,
+	 * created the first time the thread plays, so that the games played on a thread share a cache.
+	 * A cache is still used by other threads when PlacementTasks of a search are stolen, which
+	 * EvaluationCache is safe for. The caches are kept so that their counters can be combined at
+	 * the end.
+	 */
+	private static class ThreadAutoPlayers implements MovePolicy {
+		
+		private final int iLookahead; //shapes of unknown type searched after the next shape
+		private final ConcurrentLinkedQueue<EvaluationCache> iCaches = new ConcurrentLinkedQueue<EvaluationCache>(); //the cache of every player created
+		private final ThreadLocal<AutoPlayer> iPlayers = new ThreadLocal<AutoPlayer>() { //the player of each thread
+			@Override
+			protected AutoPlayer initialValue(){
+				EvaluationCache cache = new EvaluationCache(AutoPlayer.DEFAULT_CACHE_SIZE);
+				iCaches.add(cache);
+				return new AutoPlayer(ForkJoinPool.commonPool(), iLookahead, cache);
+			}
+		};
+		
+		ThreadAutoPlayers(int lookahead){
+			iLookahead = lookahead;
+		}
+		
+		@Override
+		public void makeMoves(GameEngine engine, SplittableRandom random){
+			iPlayers.get().makeMoves(engine, random);
+		}
+		
+		/**
+		 * Returns the counters of the caches of all the players combined
+		 */
+		@Override
+		public String toString(){
+			long cached = 0;
+			long hits = 0;
+			long misses = 0;
+			for(EvaluationCache cache : iCaches){
+				cached+=cache.size();
+				hits+=cache.getHits();
+				misses+=cache.getMisses();
+			}
+			long lookups = hits + misses;
+			return "Caches: " + iCaches.size() + " Cached: " + cached + " Hits: " + hits + " Misses: " + misses
+					+ " Hit rate: " + (lookups==0 ? 0 : (double)hits/lookups);
+		}
+	}
+	
+	/**
+	 * Plays a batch of games and prints the statistics. The policy is either random (the
+	 * RandomMovePolicy, the default) or auto (an AutoPlayer with a cache of its own for each of
+	 * the simulator's threads, searching on those threads alongside the games, looking ahead the
+	 * given number of shapes of unknown type).
+	 * With -Dtetris.metrics=true the GameMetrics are printed too.
+	 * Arguments: [games] [seed] [threads] [policy] [lookahead]
+	 * 
+	 * @param args
+	 */
+	public static void main(String args[]){
+		int games = args.length>0 ? Integer.parseInt(args[0]) : 1000;
+		long seed = args.length>1 ? Long.parseLong(args[1]) : System.nanoTime();
+		int threads = args.length>2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		String policyName = args.length>3 ? args[3] : "random";
+		int lookahead = args.length>4 ? Integer.parseInt(args[4]) : 0;
+		
+		MovePolicy policy;
+		if(policyName.equals("auto")){
+			policy = new ThreadAutoPlayers(lookahead);
+		}
+		else if(policyName.equals("random")){
+			policy = new RandomMovePolicy();
+		}
+		else{
+			throw new IllegalArgumentException("Unknown policy " + policyName + ", expected random or auto");
+		}
+		Simulator simulator = new Simulator(policy, DEFAULT_MAX_TICKS, threads);
+		long start = System.nanoTime();
+		SimulationResult result = simulator.simulate(games, seed);
+		long elapsed = System.nanoTime() - start;
+		simulator.shutdown();
+		System.out.println("Seed: " + seed + " Threads: " + threads + " Policy: " + policyName);
+		System.out.println(result);
+		if(policy instanceof ThreadAutoPlayers){
+			System.out.println(policy);
+		}
+		System.out.println("Games per second: " + (games*1000000000.0/elapsed));
+		if(GameMetrics.ENABLED){
+			System.out.println(GameMetrics.report());
+		}
+	}
+}
@@ -1,8 +1,10 @@
+package tetris;
+
 import java.awt.Color;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Enum of colours that are valid for a Block object
@@ -22,7 +24,6 @@ public enum ValidColour {
 	private static final List<ValidColour> VALUES =
 			Collections.unmodifiableList(Arrays.asList(values()));//a static list of all of the values
 	private static final int SIZE = VALUES.size();//the size of the list
-	private static final Random RANDOM = new Random();//seed for getting random colours
 	
 	/**
 	 * Default constructor
@@ -51,10 +52,27 @@ public enum ValidColour {
 	}
 	
 	/**
-	 * Static method for getting a random ValidColour entry
+	 * Static method for getting a random ValidColour entry. Uses the generator of the calling
+	 * thread, so threads never contend for it; games pick their colours with their own
+	 * PieceRandomizer instead, so that they can be replayed.
 	 */
 	public static ValidColour randomValidColour() {
-		return VALUES.get(RANDOM.nextInt(SIZE));
+		return VALUES.get(ThreadLocalRandom.current().nextInt(SIZE));
 		//get an element from the static VALUES arrayList at a random index value
 	}
+	
+	/**
+	 * Static method for getting the ValidColour entry with the specified index
+	 * @param index
+	 */
+	public static ValidColour fromIndex(int index) {
+		return VALUES.get(index);
+	}
+	
+	/**
+	 * Returns the number of ValidColours
+	 */
+	public static int count() {
+		return SIZE;
+	}
 }
@@ -0,0 +1,238 @@
+package tetris;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * Round trips games through GameSnapshot, and checks that GameSnapshot.load and Board.readFrom
+ * reject snapshots that do not hold a valid game.
+ *
+ * @author emma
+ * @see GameSnapshot
+ * @see GameEngine#readFrom(ByteBuffer, SplittableRandom)
+ * @see Board#readFrom(ByteBuffer)
+ */
+public class GameSnapshotTest {
+
+	private static final int HEADER = 5; //bytes of the magic number and the version
+	private static final int ACTIVE_X = HEADER + Board.SNAPSHOT_BYTES + 3; //offset of the active shape's x
+	private static final int ACTIVE_Y = ACTIVE_X + 4; //offset of the active shape's y
+
+	@TempDir
+	Path iDirectory;
+
+	@Test
+	public void loadRestoresTheSavedGame() throws IOException {
+		Path file = iDirectory.resolve("game.ttsv");
+		GameEngine saved = play(150);
+		GameSnapshot.save(saved, file);
+		assertEquals(GameSnapshot.SIZE, Files.size(file));
+		GameEngine loaded = GameSnapshot.load(file);
+		assertArrayEquals(snapshot(saved), snapshot(loaded));
+		assertEquals(saved.getBoard().getHash(), loaded.getBoard().getHash());
+		assertEquals(saved.getNextType(), loaded.getNextType());
+	}
+
+	@Test
+	public void saveReplacesTheSavedGameAndLeavesNoTemporaryFiles() throws IOException {
+		Path file = iDirectory.resolve("game.ttsv");
+		GameSnapshot.save(play(100), file);
+		GameEngine later = play(150);
+		GameSnapshot.save(later, file);
+		assertArrayEquals(snapshot(later), snapshot(GameSnapshot.load(file)));
+		try(Stream<Path> files = Files.list(iDirectory)){
+			assertEquals(1, files.count());
+		}
+	}
+
+	@Test
+	public void emptyCellsAreWrittenWithoutTheirOldColours(){
+		Board board = new Board();
+		ValidColour colour = ValidColour.fromIndex(ValidColour.count()-1);
+		for(int y=0; y<Board.ROWS; y++){
+			for(int x=0; x<Board.COLUMNS; x++){
+				board.setBlock(x, y, colour);
+			}
+		}
+		assertEquals(Board.ROWS, board.clearFullLines());
+		assertArrayEquals(bytes(new Board()), bytes(board));
+	}
+
+	@Test
+	public void loadRejectsBadMagic() throws IOException {
+		Path file = corrupt(0, (byte)0);
+		assertTrue(loadFailure(file).getMessage().endsWith("is not a saved game"));
+	}
+
+	@Test
+	public void loadRejectsOtherVersions() throws IOException {
+		Path file = corrupt(4, (byte)(GameSnapshot.VERSION + 1));
+		String message = loadFailure(file).getMessage();
+		assertTrue(message.contains("is saved in version " + (GameSnapshot.VERSION + 1)), message);
+	}
+
+	@Test
+	public void loadRejectsTruncatedFiles() throws IOException {
+		Path file = iDirectory.resolve("game.ttsv");
+		GameSnapshot.save(play(100), file);
+		Files.write(file, Arrays.copyOf(Files.readAllBytes(file), GameSnapshot.SIZE-1));
+		assertTrue(loadFailure(file).getMessage().endsWith("is not a saved game"));
+	}
+
+	@Test
+	public void loadRejectsActiveShapeOutsideTheBoard() throws IOException {
+		Path file = iDirectory.resolve("game.ttsv");
+		GameSnapshot.save(play(100), file);
+		ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+		bytes.putInt(ACTIVE_X, Board.COLUMNS);
+		Files.write(file, bytes.array());
+		assertInvalidGame(file, "is outside the board");
+
+		bytes.putInt(ACTIVE_X, 3);
+		bytes.putInt(ACTIVE_Y, Integer.MIN_VALUE);
+		Files.write(file, bytes.array());
+		assertInvalidGame(file, "is outside the board");
+	}
+
+	@Test
+	public void loadRejectsActiveShapeThatDoesNotFit() throws IOException {
+		Path file = iDirectory.resolve("game.ttsv");
+		GameSnapshot.save(play(100), file);
+		ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+		for(int y=0; y<Board.ROWS; y++){
+			bytes.putShort(HEADER + (y*2), (short)Board.FULL_ROW);
+		}
+		Files.write(file, bytes.array());
+		assertInvalidGame(file, "does not fit on the board");
+	}
+
+	@Test
+	public void loadRejectsColouredEmptyCells() throws IOException {
+		Path file = iDirectory.resolve("game.ttsv");
+		GameSnapshot.save(new GameEngine(1), file);
+		byte[] bytes = Files.readAllBytes(file);
+		bytes[HEADER + (Board.ROWS*2)] = 0x01;
+		Files.write(file, bytes);
+		assertInvalidGame(file, "Empty cell 0,0 has colour 1");
+	}
+
+	@Test
+	public void invalidBoardLeavesTheBoardAsItWas(){
+		Board board = new Board();
+		board.setBlock(3, Board.ROWS-1, ValidColour.fromIndex(1));
+		byte[] before = bytes(board);
+		int version = board.getVersion();
+		ByteBuffer invalid = ByteBuffer.allocate(Board.SNAPSHOT_BYTES);
+		invalid.putShort(0, (short)1);
+		invalid.put(Board.SNAPSHOT_BYTES-1, (byte)0x0F);
+		try{
+			board.readFrom(invalid);
+			fail("An invalid board was read");
+		}
+		catch(IllegalArgumentException e){
+			//expected
+		}
+		assertArrayEquals(before, bytes(board));
+		assertEquals(version, board.getVersion());
+		assertFalse(board.isOccupied(0, 0));
+	}
+
+	/**
+	 * Plays a seeded game making random moves before gravity ticks. The game must not end, as a
+	 * game that is over cannot be loaded again.
+	 *
+	 * @param ticks
+	 */
+	private static GameEngine play(int ticks){
+		GameEngine engine = new GameEngine(42);
+		SplittableRandom moves = new SplittableRandom(7);
+		for(int i=0; i<ticks; i++){
+			if(moves.nextInt(4)==0){
+				GameInput.values()[moves.nextInt(GameInput.values().length)].apply(engine);
+			}
+			if(!engine.step()){
+				fail("The game ended after " + i + " ticks");
+			}
+		}
+		return engine;
+	}
+
+	/**
+	 * Saves a game and overwrites one byte of the file
+	 *
+	 * @param offset
+	 * @param value
+	 * @return the file
+	 */
+	private Path corrupt(int offset, byte value) throws IOException {
+		Path file = iDirectory.resolve("game.ttsv");
+		GameSnapshot.save(play(100), file);
+		byte[] bytes = Files.readAllBytes(file);
+		bytes[offset] = value;
+		Files.write(file, bytes);
+		return file;
+	}
+
+	/**
+	 * Checks that a file is rejected as an invalid game, for the given reason
+	 *
+	 * @param file
+	 * @param reason part of the message of the IllegalArgumentException behind the rejection
+	 */
+	private static void assertInvalidGame(Path file, String reason){
+		IOException e = loadFailure(file);
+		assertTrue(e.getMessage().endsWith("holds an invalid game"), e.getMessage());
+		assertTrue(e.getCause().getMessage().contains(reason), e.getCause().getMessage());
+	}
+
+	/**
+	 * Loads a file that should not be loaded as a saved game
+	 *
+	 * @param file
+	 * @return the IOException thrown
+	 */
+	private static IOException loadFailure(Path file){
+		try{
+			GameSnapshot.load(file);
+		}
+		catch(IOException e){
+			return e;
+		}
+		return fail(file + " was loaded as a saved game");
+	}
+
+	/**
+	 * Returns the state of a game as written by GameEngine.writeTo(ByteBuffer)
+	 * @param engine
+	 */
+	private static byte[] snapshot(GameEngine engine){
+		ByteBuffer buffer = ByteBuffer.allocate(GameEngine.SNAPSHOT_BYTES);
+		engine.writeTo(buffer);
+		return buffer.array();
+	}
+
+	/**
+	 * Returns a board as written by Board.writeTo(ByteBuffer)
+	 * @param board
+	 */
+	private static byte[] bytes(Board board){
+		ByteBuffer buffer = ByteBuffer.allocate(Board.SNAPSHOT_BYTES);
+		board.writeTo(buffer);
+		return buffer.array();
+	}
+}
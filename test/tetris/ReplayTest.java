@@ -0,0 +1,181 @@
+package tetris;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * Round trips games through ReplayRecorder and Replay, and checks that Replay.read rejects
+ * files that are not valid recordings.
+ *
+ * @author emma
+ * @see ReplayRecorder
+ * @see Replay
+ */
+public class ReplayTest {
+
+	private static final long SEED = 42;
+	private static final int TICKS = 500; //gravity ticks played in a recorded game
+
+	@TempDir
+	Path iDirectory;
+
+	@Test
+	public void replayPlaysTheRecordedGame() throws IOException {
+		Path file = iDirectory.resolve("game.ttrp");
+		GameEngine recorded = record(file, true);
+		Replay replay = Replay.read(file);
+		assertEquals(SEED, replay.getSeed());
+		assertEquals(recorded.getTickCount(), replay.getEndTick());
+		assertTrue(replay.getMoveCount()>0);
+		GameEngine played = replay.play();
+		assertArrayEquals(snapshot(recorded), snapshot(played));
+		assertEquals(recorded.getScore(), played.getScore());
+	}
+
+	@Test
+	public void replayCanBePlayedAgain() throws IOException {
+		Path file = iDirectory.resolve("game.ttrp");
+		record(file, true);
+		Replay replay = Replay.read(file);
+		assertArrayEquals(snapshot(replay.play()), snapshot(replay.play()));
+	}
+
+	@Test
+	public void recordingNotEndedEndsAfterItsLastMove() throws IOException {
+		Path file = iDirectory.resolve("game.ttrp");
+		record(file, false);
+		Replay replay = Replay.read(file);
+		assertEquals(-1, replay.getEndTick());
+		assertTrue(replay.getLastTick()>0);
+		assertTrue(replay.getLastTick()<TICKS);
+	}
+
+	@Test
+	public void emptyRecordingReadsWithNoMoves() throws IOException {
+		Path file = iDirectory.resolve("empty.ttrp");
+		new ReplayRecorder(file, SEED).close(0);
+		Replay replay = Replay.read(file);
+		assertEquals(0, replay.getMoveCount());
+		assertEquals(0, replay.getEndTick());
+	}
+
+	@Test
+	public void readRejectsBadMagic() throws IOException {
+		Path file = iDirectory.resolve("game.ttrp");
+		record(file, true);
+		byte[] bytes = Files.readAllBytes(file);
+		bytes[0] ^= 1;
+		Files.write(file, bytes);
+		String message = readFailure(file);
+		assertTrue(message.endsWith("is not a recording"), message);
+	}
+
+	@Test
+	public void readRejectsOtherVersions() throws IOException {
+		Path file = iDirectory.resolve("game.ttrp");
+		record(file, true);
+		byte[] bytes = Files.readAllBytes(file);
+		bytes[4] = ReplayRecorder.VERSION + 1;
+		Files.write(file, bytes);
+		String message = readFailure(file);
+		assertTrue(message.contains("is recorded in version " + (ReplayRecorder.VERSION + 1)), message);
+	}
+
+	@Test
+	public void readRejectsTruncatedHeader() throws IOException {
+		Path file = iDirectory.resolve("game.ttrp");
+		record(file, true);
+		Files.write(file, Arrays.copyOf(Files.readAllBytes(file), 12));
+		String message = readFailure(file);
+		assertTrue(message.endsWith("is not a recording"), message);
+	}
+
+	@Test
+	public void readRejectsRecordingCutPartWayThroughAMove() throws IOException {
+		Path file = iDirectory.resolve("game.ttrp");
+		new ReplayRecorder(file, SEED).close(1000);
+		byte[] bytes = Files.readAllBytes(file);
+		//the END record at tick 1000 takes two bytes, so dropping the last leaves half of it
+		Files.write(file, Arrays.copyOf(bytes, bytes.length-1));
+		String message = readFailure(file);
+		assertEquals("The recording ends part way through a move", message);
+	}
+
+	@Test
+	public void readRejectsUnknownMoves() throws IOException {
+		Path file = iDirectory.resolve("game.ttrp");
+		ByteBuffer buffer = ByteBuffer.allocate(14);
+		buffer.putInt(ReplayRecorder.MAGIC);
+		buffer.put(ReplayRecorder.VERSION);
+		buffer.putLong(SEED);
+		buffer.put((byte)GameInput.values().length);
+		Files.write(file, buffer.array());
+		String message = readFailure(file);
+		assertTrue(message.endsWith("has an unknown move " + GameInput.values().length), message);
+	}
+
+	/**
+	 * Plays a game making random moves before gravity ticks and records it
+	 *
+	 * @param file
+	 * @param end whether to end the recording at the last tick, or just close it
+	 * @return the game recorded
+	 */
+	private static GameEngine record(Path file, boolean end) throws IOException {
+		GameEngine engine = new GameEngine(SEED);
+		SplittableRandom moves = new SplittableRandom(7);
+		try(ReplayRecorder recorder = new ReplayRecorder(file, SEED)){
+			for(int i=0; i<TICKS && !engine.isGameOver(); i++){
+				if(moves.nextInt(4)==0){
+					GameInput input = GameInput.values()[moves.nextInt(GameInput.values().length)];
+					recorder.record(engine.getTickCount(), input);
+					input.apply(engine);
+				}
+				engine.step();
+			}
+			if(end){
+				recorder.close(engine.getTickCount());
+			}
+		}
+		return engine;
+	}
+
+	/**
+	 * Reads a file that should not be read as a recording
+	 *
+	 * @param file
+	 * @return the message of the IOException thrown
+	 */
+	private static String readFailure(Path file){
+		try{
+			Replay.read(file);
+		}
+		catch(IOException e){
+			return e.getMessage();
+		}
+		return fail(file + " was read as a recording");
+	}
+
+	/**
+	 * Returns the state of a game as written by GameEngine.writeTo(ByteBuffer)
+	 * @param engine
+	 */
+	private static byte[] snapshot(GameEngine engine){
+		ByteBuffer buffer = ByteBuffer.allocate(GameEngine.SNAPSHOT_BYTES);
+		engine.writeTo(buffer);
+		return buffer.array();
+	}
+}